@@ -0,0 +1,159 @@
+package org.hibernate.benchmark.bootstrap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.hibernate.cfg.AvailableSettings;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.metamodel.EntityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cold start of each persistence unit: a single measurement per JVM, without warmup, so that class loading,
+ * bytecode generation and the JIT are part of the measurement.
+ * <ul>
+ *     <li>{@link #buildSessionFactory}: {@code Persistence.createEntityManagerFactory}, without the schema creation
+ *     the persistence units run, which is a large share of the time for the small ones</li>
+ *     <li>{@link #firstQuery}: the first query on a freshly built factory</li>
+ *     <li>{@link #firstQueries}: the first {@link #queries} distinct queries on a freshly built factory</li>
+ * </ul>
+ * See {@code run_Bootstrap.sh} to compare them with and without an AppCDS archive, which {@link #main} trains.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class Bootstrap {
+
+	private static final Map<String, Object> NO_SCHEMA_MANAGEMENT = Map.of(
+			AvailableSettings.JAKARTA_HBM2DDL_DATABASE_ACTION, "none",
+			AvailableSettings.HBM2DDL_AUTO, "none"
+	);
+
+	@Param({
+			"bench1",
+			"bench2",
+			"QueryImmutableEntity",
+			"QueryOneToManyFetch",
+			"QueryCacheEntityWithAssociation",
+			"AutoFlush",
+			"AutoFlush2",
+			"AutoFlushQuerySpaces",
+			"PartialFlush",
+			"ReadOnlyModes",
+			"FetchStrategies",
+			"PersistenceContextFootprint",
+			"DirtyChecking"
+	})
+	public String persistenceUnit;
+
+	@Param({"100"})
+	public int queries;
+
+	protected EntityManagerFactory entityManagerFactory;
+
+	@TearDown(Level.Iteration)
+	public void destroy() {
+		if ( entityManagerFactory != null ) {
+			entityManagerFactory.close();
+			entityManagerFactory = null;
+		}
+	}
+
+	/**
+	 * A factory built before the measurement, with the schema of the persistence unit
+	 */
+	@State(Scope.Benchmark)
+	public static class Factory {
+		protected EntityManagerFactory entityManagerFactory;
+
+		@Setup(Level.Iteration)
+		public void setup(Bootstrap benchmark) {
+			entityManagerFactory = Persistence.createEntityManagerFactory( benchmark.persistenceUnit );
+		}
+
+		@TearDown(Level.Iteration)
+		public void destroy() {
+			entityManagerFactory.close();
+		}
+	}
+
+	@Benchmark
+	public EntityManagerFactory buildSessionFactory() {
+		entityManagerFactory = Persistence.createEntityManagerFactory( persistenceUnit, NO_SCHEMA_MANAGEMENT );
+		return entityManagerFactory;
+	}
+
+	@Benchmark
+	public void firstQuery(Factory factory, Blackhole bh) {
+		query( factory.entityManagerFactory, 1, bh );
+	}
+
+	@Benchmark
+	public void firstQueries(Factory factory, Blackhole bh) {
+		query( factory.entityManagerFactory, queries, bh );
+	}
+
+	/**
+	 * Runs distinct queries, i.e. distinct query plans, over the entities of the persistence unit in turn
+	 */
+	protected static void query(EntityManagerFactory entityManagerFactory, int queries, Blackhole bh) {
+		final List<String> entityNames = entityManagerFactory.getMetamodel().getEntities().stream()
+				.map( EntityType::getName )
+				.sorted()
+				.collect( Collectors.toList() );
+		final EntityManager em = entityManagerFactory.createEntityManager();
+		try {
+			em.getTransaction().begin();
+			for ( int i = 0; i < queries; i++ ) {
+				final String entityName = entityNames.get( i % entityNames.size() );
+				final List<?> results = em.createQuery( "select e from " + entityName + " e where id(e) <> " + i )
+						.setMaxResults( 1 )
+						.getResultList();
+				if ( bh != null ) {
+					bh.consume( results );
+				}
+			}
+			em.getTransaction().commit();
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Boots and queries every persistence unit, e.g. to train an AppCDS archive
+	 */
+	public static void main(String[] args) throws Exception {
+		final List<String> persistenceUnits = List.of(
+				Bootstrap.class.getField( "persistenceUnit" ).getAnnotation( Param.class ).value()
+		);
+		for ( String persistenceUnit : persistenceUnits ) {
+			final Bootstrap benchmark = new Bootstrap();
+			benchmark.persistenceUnit = persistenceUnit;
+			benchmark.buildSessionFactory();
+			benchmark.destroy();
+			// the queries need the schema
+			final EntityManagerFactory entityManagerFactory = Persistence.createEntityManagerFactory( persistenceUnit );
+			query( entityManagerFactory, 100, null );
+			entityManagerFactory.close();
+		}
+	}
+}
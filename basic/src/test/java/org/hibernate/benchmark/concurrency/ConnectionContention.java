@@ -0,0 +1,172 @@
+package org.hibernate.benchmark.concurrency;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.benchmark.flush.PartialFlush;
+import org.hibernate.benchmark.util.ConnectionPool;
+import org.hibernate.cfg.AvailableSettings;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Short transactions, the finds of {@code PartialFlush.createApples} followed by a query, run by all the benchmark
+ * threads against one shared {@code EntityManagerFactory} and a {@link ConnectionPool} of {@link #poolSize}
+ * connections, i.e. mostly the cost of acquiring and releasing connections once there are more threads than connections.
+ * <p>
+ * Each benchmark method runs with a different number of threads, use {@link org.hibernate.benchmark.util.ThreadScalingReport}
+ * to get the ops/s per thread. The {@code SampleTime} mode reports the latency percentiles, including the time spent
+ * waiting for a connection. Hibernate's built-in pool fails instead of waiting when all its connections are in use,
+ * so with {@code BUILT_IN} the threads wait for one of {@link #poolSize} permits of a {@link Semaphore} instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class ConnectionContention {
+
+	protected ConnectionPool connectionPool;
+	protected EntityManagerFactory entityManagerFactory;
+	protected Semaphore connections;
+
+	@Param({ConnectionPool.BUILT_IN, ConnectionPool.HIKARI, ConnectionPool.AGROAL})
+	public String pool;
+
+	@Param({"5"})
+	public int poolSize;
+
+	/**
+	 * {@code hibernate.connection.handling_mode}, with a resource local transaction the connection is never
+	 * released before the end of the transaction
+	 */
+	@Param({
+			"DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION",
+			"DELAYED_ACQUISITION_AND_HOLD",
+			"IMMEDIATE_ACQUISITION_AND_HOLD"
+	})
+	public String handlingMode;
+
+	@Setup
+	public void setup() {
+		connectionPool = new ConnectionPool( pool, poolSize );
+		if ( ConnectionPool.BUILT_IN.equals( pool ) ) {
+			connections = new Semaphore( poolSize, true );
+		}
+		final Map<String, Object> settings = new HashMap<>( connectionPool.settings() );
+		settings.put( AvailableSettings.CONNECTION_HANDLING, handlingMode );
+		// with IMMEDIATE_ACQUISITION_AND_HOLD, the JdbcCoordinator reading the JDBC metadata at boot never releases
+		// its connection, and the dialect is set anyway (the first key for ORM 6.5+, the second for the older versions)
+		settings.put( "hibernate.boot.allow_jdbc_metadata_access", "false" );
+		settings.put( "hibernate.temp.use_jdbc_metadata_defaults", "false" );
+		entityManagerFactory = Persistence.createEntityManagerFactory( "PartialFlush", settings );
+
+		final PartialFlush data = new PartialFlush();
+		data.apples = 10;
+		final EntityManager em = entityManagerFactory.createEntityManager();
+		em.getTransaction().begin();
+		data.populateReferenceData( em );
+		data.populateData( em );
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@TearDown
+	public void destroy() throws Exception {
+		entityManagerFactory.close();
+		connectionPool.close();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void threads1(Blackhole bh) throws InterruptedException {
+		transaction( bh );
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void threads4(Blackhole bh) throws InterruptedException {
+		transaction( bh );
+	}
+
+	@Benchmark
+	@Threads(8)
+	public void threads8(Blackhole bh) throws InterruptedException {
+		transaction( bh );
+	}
+
+	@Benchmark
+	@Threads(16)
+	public void threads16(Blackhole bh) throws InterruptedException {
+		transaction( bh );
+	}
+
+	@Benchmark
+	@Threads(64)
+	public void threads64(Blackhole bh) throws InterruptedException {
+		transaction( bh );
+	}
+
+	protected void transaction(Blackhole bh) throws InterruptedException {
+		if ( connections != null ) {
+			connections.acquire();
+		}
+		try {
+			final EntityManager em = entityManagerFactory.createEntityManager();
+			em.getTransaction().begin();
+			try {
+				final Object passionFruit = em.find( PartialFlush.PassionFruit.class, PartialFlush.PASSION_FRUIT_ID );
+				final Object peachType = em.find( PartialFlush.PeachType.class, PartialFlush.PEACH_TYPE_ID );
+				final List<?> apricots = em.createQuery( "select a from Apricot a" ).getResultList();
+				if ( bh != null ) {
+					bh.consume( passionFruit );
+					bh.consume( peachType );
+					bh.consume( apricots );
+				}
+			}
+			finally {
+				em.getTransaction().commit();
+				em.close();
+			}
+		}
+		finally {
+			if ( connections != null ) {
+				connections.release();
+			}
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		for ( String pool : List.of( ConnectionPool.BUILT_IN, ConnectionPool.HIKARI, ConnectionPool.AGROAL ) ) {
+			final ConnectionContention benchmark = new ConnectionContention();
+			benchmark.pool = pool;
+			benchmark.poolSize = 5;
+			benchmark.handlingMode = "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION";
+			benchmark.setup();
+			for ( int i = 0; i < 5; i++ ) {
+				benchmark.threads1( null );
+			}
+			benchmark.destroy();
+		}
+	}
+}
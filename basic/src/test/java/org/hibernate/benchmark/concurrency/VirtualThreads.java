@@ -0,0 +1,238 @@
+package org.hibernate.benchmark.concurrency;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.benchmark.flush.PartialFlush;
+import org.hibernate.benchmark.util.ConnectionPool;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Runs {@link #sessions} concurrent short transactions, a find and a query on the {@link PartialFlush} model,
+ * against one shared {@code EntityManagerFactory} and a {@link ConnectionPool} of {@link #poolSize} connections,
+ * either on a cached pool of platform threads or on a virtual thread per task (which requires JDK 21).
+ * <p>
+ * The {@code jdk.VirtualThreadPinned} JFR events are recorded during the whole trial: the {@code pinned} counter
+ * is their rate, and the code paths which pinned a carrier thread, i.e. the first frames of the stack traces
+ * outside the JDK, are printed at the end of the trial:
+ * <pre>
+ * $ java -jar basic/target/libs/hibernate-orm-benchmark-basic-1.0-SNAPSHOT-jmh.jar VirtualThreads -jvm /path/to/jdk21/bin/java
+ * </pre>
+ * Hibernate's built-in pool fails instead of waiting when all its connections are in use, so with {@code BUILT_IN}
+ * the transactions wait for one of {@link #poolSize} permits of a {@link Semaphore} instead, which does not pin.
+ * Since JDK 24 waiting in a {@code synchronized} block no longer pins the carrier, so run it with the JDK of the
+ * services it is meant to represent.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class VirtualThreads {
+
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+	private static final int TOP_FRAMES = 10;
+
+	@Param({"PLATFORM", "VIRTUAL"})
+	public String executor;
+
+	@Param({"100", "1000"})
+	public int sessions;
+
+	@Param({ConnectionPool.BUILT_IN, ConnectionPool.HIKARI, ConnectionPool.AGROAL})
+	public String pool;
+
+	@Param({"5"})
+	public int poolSize;
+
+	protected ConnectionPool connectionPool;
+	protected EntityManagerFactory entityManagerFactory;
+	protected ExecutorService executorService;
+	protected Semaphore connections;
+	protected RecordingStream recording;
+	protected final AtomicLong pinnedEvents = new AtomicLong();
+	protected final AtomicLong unreportedPinnedEvents = new AtomicLong();
+	protected final Map<String, LongAdder> pinningFrames = new ConcurrentHashMap<>();
+
+	@Setup
+	public void setup() throws Exception {
+		executorService = switch ( executor ) {
+			case "PLATFORM" -> Executors.newCachedThreadPool();
+			case "VIRTUAL" -> newVirtualThreadPerTaskExecutor();
+			default -> throw new IllegalArgumentException( "Unknown executor: " + executor );
+		};
+		connectionPool = new ConnectionPool( pool, poolSize );
+		if ( ConnectionPool.BUILT_IN.equals( pool ) ) {
+			connections = new Semaphore( poolSize );
+		}
+		entityManagerFactory = Persistence.createEntityManagerFactory( "PartialFlush", connectionPool.settings() );
+
+		final PartialFlush data = new PartialFlush();
+		data.apples = 10;
+		final EntityManager em = entityManagerFactory.createEntityManager();
+		em.getTransaction().begin();
+		data.populateReferenceData( em );
+		data.populateData( em );
+		em.getTransaction().commit();
+		em.close();
+
+		startRecording();
+	}
+
+	/**
+	 * Virtual threads are not available in the Java version the benchmarks are compiled for
+	 */
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+		}
+		catch (NoSuchMethodException e) {
+			throw new IllegalStateException( "Virtual threads require JDK 21, run with -jvm /path/to/jdk21/bin/java", e );
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalStateException( "Could not create the virtual thread executor", e );
+		}
+	}
+
+	private void startRecording() {
+		recording = new RecordingStream();
+		// unknown before JDK 21, in which case nothing is recorded
+		recording.enable( PINNED_EVENT ).withThreshold( Duration.ZERO ).withStackTrace();
+		recording.onEvent( PINNED_EVENT, this::pinned );
+		recording.startAsync();
+	}
+
+	private void pinned(RecordedEvent event) {
+		pinnedEvents.incrementAndGet();
+		unreportedPinnedEvents.incrementAndGet();
+		if ( event.getStackTrace() == null ) {
+			return;
+		}
+		for ( RecordedFrame frame : event.getStackTrace().getFrames() ) {
+			final String type = frame.getMethod().getType().getName();
+			if ( !type.startsWith( "java." ) && !type.startsWith( "jdk." ) && !type.startsWith( "sun." ) ) {
+				final String location = type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+				pinningFrames.computeIfAbsent( location, key -> new LongAdder() ).increment();
+				return;
+			}
+		}
+	}
+
+	@TearDown
+	public void destroy() throws Exception {
+		executorService.shutdown();
+		executorService.awaitTermination( 1, TimeUnit.MINUTES );
+		recording.close();
+		entityManagerFactory.close();
+		connectionPool.close();
+		printPinningFrames();
+	}
+
+	private void printPinningFrames() {
+		System.out.println();
+		System.out.println( pinnedEvents.get() + " " + PINNED_EVENT + " events" );
+		pinningFrames.entrySet().stream()
+				.sorted( (a, b) -> Long.compare( b.getValue().sum(), a.getValue().sum() ) )
+				.limit( TOP_FRAMES )
+				.forEach( entry -> System.out.println( "  " + entry.getValue().sum() + "\t" + entry.getKey() ) );
+	}
+
+	/**
+	 * Reported as rates: {@code pinned} is the number of pinning events per second, which are delivered
+	 * asynchronously so it is only accurate over a whole iteration.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class EventCounters {
+		public long transactions;
+		public long pinned;
+	}
+
+	@Benchmark
+	public void transactions(Blackhole bh, EventCounters counters) throws Exception {
+		final List<Future<?>> futures = new ArrayList<>( sessions );
+		for ( int i = 0; i < sessions; i++ ) {
+			futures.add( executorService.submit( () -> {
+				transaction( bh );
+				return null;
+			} ) );
+		}
+		for ( Future<?> future : futures ) {
+			future.get();
+		}
+		if ( counters != null ) {
+			counters.transactions += sessions;
+			counters.pinned += unreportedPinnedEvents.getAndSet( 0 );
+		}
+	}
+
+	protected void transaction(Blackhole bh) throws InterruptedException {
+		if ( connections != null ) {
+			connections.acquire();
+		}
+		try {
+			doTransaction( bh );
+		}
+		finally {
+			if ( connections != null ) {
+				connections.release();
+			}
+		}
+	}
+
+	private void doTransaction(Blackhole bh) {
+		final EntityManager em = entityManagerFactory.createEntityManager();
+		em.getTransaction().begin();
+		try {
+			final Object eggplant = em.find( PartialFlush.Eggplant.class, PartialFlush.EGGPLANT_ID );
+			final List<?> apricots = em.createQuery( "select a from Apricot a" ).getResultList();
+			if ( bh != null ) {
+				bh.consume( eggplant );
+				bh.consume( apricots );
+			}
+		}
+		finally {
+			em.getTransaction().commit();
+			em.close();
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		for ( String pool : List.of( ConnectionPool.BUILT_IN, ConnectionPool.HIKARI, ConnectionPool.AGROAL ) ) {
+			final VirtualThreads benchmark = new VirtualThreads();
+			benchmark.executor = Runtime.version().feature() >= 21 ? "VIRTUAL" : "PLATFORM";
+			benchmark.sessions = 100;
+			benchmark.pool = pool;
+			benchmark.poolSize = 5;
+			benchmark.setup();
+			for ( int i = 0; i < 5; i++ ) {
+				benchmark.transactions( null, null );
+			}
+			benchmark.destroy();
+		}
+	}
+}
@@ -16,6 +16,7 @@ import java.util.UUID;
 
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.SharedSessionContract;
 import org.hibernate.annotations.NaturalId;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 import org.hibernate.bytecode.enhance.spi.EnhancementContext;
@@ -26,6 +27,7 @@ import org.hibernate.bytecode.spi.ProxyFactoryFactory;
 import org.hibernate.bytecode.spi.ReflectionOptimizer;
 import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.property.access.spi.PropertyAccess;
 
@@ -54,8 +56,12 @@ import static org.hibernate.internal.util.NullnessUtil.castNonNull;
  */
 @State(Scope.Thread)
 public class AccessOptimizers {
+	// the database selected with -Pdb, the same for hibernate.properties and persistence.xml
+	private static final boolean H2 = String.valueOf( Environment.getProperties().get( AvailableSettings.DIALECT ) )
+			.contains( "H2Dialect" );
+
 	public enum Access {
-		STANDARD, OPTIMIZED
+		STANDARD, OPTIMIZED, METHOD_HANDLE
 	}
 
 	public enum Morphism {
@@ -77,6 +83,9 @@ public class AccessOptimizers {
 	@Param
 	private Morphism morphism;
 
+	@Param
+	private SessionKind sessionKind;
+
 	// WHen true, we make JIT compile all Morphism versions of the method but then run only 1 type
 	@Param({ "false", "true" })
 	private boolean polluteAtWarmup;
@@ -85,7 +94,7 @@ public class AccessOptimizers {
 	private int count;
 
 	private SessionFactory sessionFactory;
-	private Session session;
+	private SharedSessionContract session;
 
 	int nextEntityTypeId;
 	int[] entityTypes;
@@ -100,9 +109,10 @@ public class AccessOptimizers {
 		switch ( access ) {
 			case OPTIMIZED -> sessionFactory = getSessionFactory( new TestBytecodeProvider(), types, access );
 			case STANDARD -> sessionFactory = getSessionFactory( new ProxyOnlyBytecodeProvider(), types, access );
+			case METHOD_HANDLE -> sessionFactory = getSessionFactory( new MethodHandleBytecodeProvider( false, true ), types, access );
 		}
 		populateData( sessionFactory, count, types );
-		session = sessionFactory.openSession();
+		session = sessionKind.open( sessionFactory );
 		session.getTransaction().begin();
 
 		nextEntityTypeId = 0;
@@ -176,7 +186,7 @@ public class AccessOptimizers {
 		);
 	}
 
-	private static AnotherEntity randomAnotherEntity(int count) {
+	public static AnotherEntity randomAnotherEntity(int count) {
 		final long timestamp = System.currentTimeMillis() + count * 3_600_000L;
 		final AnotherEntity entity = new AnotherEntity();
 		entity.setId( count );
@@ -199,7 +209,7 @@ public class AccessOptimizers {
 	}
 
 	@Entity(name = "AnotherEntity")
-	static class AnotherEntity {
+	public static class AnotherEntity {
 		private Integer id;
 		private Date someDate;
 		private Instant someInstant;
@@ -359,7 +369,7 @@ public class AccessOptimizers {
 		return entity;
 	}
 
-	private static EntityOfBasics randomEntityOfBasics(int count) {
+	public static EntityOfBasics randomEntityOfBasics(int count) {
 		final long timestamp = System.currentTimeMillis() + count * 3_600_000L;
 		final EntityOfBasics entity = new EntityOfBasics( count );
 		entity.setTheBoolean( count % 2 == 0 );
@@ -380,7 +390,8 @@ public class AccessOptimizers {
 		entity.setTheTimestamp( new Date( timestamp ) );
 		entity.setTheInstant( Instant.ofEpochMilli( timestamp ) );
 		entity.setGender( entity.isTheBoolean() ? EntityOfBasics.Gender.FEMALE : EntityOfBasics.Gender.MALE );
-		entity.setSingleCharGender( entity.isTheBoolean() ? EntityOfBasics.Gender.FEMALE : EntityOfBasics.Gender.MALE );
+		// the names of the enum values only fit in its single character column with the native enums of H2
+		entity.setSingleCharGender( H2 ? entity.getGender() : null );
 		entity.setConvertedGender( entity.isTheBoolean() ? EntityOfBasics.Gender.FEMALE : EntityOfBasics.Gender.MALE );
 		entity.setOrdinalGender( entity.isTheBoolean() ? EntityOfBasics.Gender.FEMALE : EntityOfBasics.Gender.MALE );
 		entity.setTheDuration( null ); // DurationJavaType wraps BigDecimal using costly division
@@ -408,15 +419,9 @@ public class AccessOptimizers {
 				config.addAnnotatedClass( SimpleEntity.class );
 		}
 		final StandardServiceRegistryBuilder srb = config.getStandardServiceRegistryBuilder();
+		// the database is the one of hibernate.properties, selected with -Pdb
 		srb.applySetting( AvailableSettings.SHOW_SQL, false )
 				.applySetting( AvailableSettings.LOG_SESSION_METRICS, false )
-				.applySetting(
-						AvailableSettings.DIALECT,
-						"org.hibernate.dialect.H2Dialect"
-				)
-				.applySetting( AvailableSettings.JAKARTA_JDBC_DRIVER, "org.h2.Driver" )
-				.applySetting( AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:test;DB_CLOSE_DELAY=-1" )
-				.applySetting( AvailableSettings.JAKARTA_JDBC_USER, "sa" )
 				.applySetting( AvailableSettings.HBM2DDL_AUTO, "create-drop" );
 		// force no runtime bytecode-enhancement
 		srb.addService( BytecodeProvider.class, bytecodeProvider );
@@ -458,7 +463,7 @@ public class AccessOptimizers {
 		return count;
 	}
 
-	private static int query(Class<?> entityClass, Session session, Blackhole bh) {
+	private static int query(Class<?> entityClass, SharedSessionContract session, Blackhole bh) {
 		final List<?> resultList = session.createQuery(
 				"from " + entityClass.getSimpleName(),
 				entityClass
@@ -470,7 +475,9 @@ public class AccessOptimizers {
 			}
 			count++;
 		}
-		session.clear();
+		if ( session instanceof Session statefulSession ) {
+			statefulSession.clear();
+		}
 		return count;
 	}
 
@@ -559,6 +566,7 @@ public class AccessOptimizers {
 		benchmark.morphism = Morphism.FOUR;
 		benchmark.count = 100;
 		benchmark.access = Access.OPTIMIZED;
+		benchmark.sessionKind = SessionKind.STATEFUL;
 
 		benchmark.setup( null );
 		query( SimpleEntity.class, benchmark.session, null );
@@ -9,6 +9,7 @@ import org.hibernate.AssertionFailure;
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.SharedSessionContract;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 import org.hibernate.bytecode.enhance.spi.EnhancementContext;
 import org.hibernate.bytecode.enhance.spi.Enhancer;
@@ -47,7 +48,7 @@ import org.openjdk.jmh.infra.Blackhole;
 public class EntityInstantiators {
 
 	public enum Instantiation {
-		STANDARD, OPTIMIZED
+		STANDARD, OPTIMIZED, METHOD_HANDLE
 	}
 
 	public enum Morphism {
@@ -69,6 +70,9 @@ public class EntityInstantiators {
 	@Param
 	private Morphism morphism;
 
+	@Param
+	private SessionKind sessionKind;
+
 	// WHen true, we make JIT compile all Morphism versions of the method but then run only 1 type
 	@Param({ "false", "true" })
 	private boolean polluteAtWarmup;
@@ -77,7 +81,7 @@ public class EntityInstantiators {
 	private int count;
 
 	private SessionFactory sessionFactory;
-	private Session session;
+	private SharedSessionContract session;
 
 	int nextEntityTypeId;
 	int[] entityTypes;
@@ -100,9 +104,14 @@ public class EntityInstantiators {
 					EntityInstantiatorPojoStandard.class,
 					types
 			);
+			case METHOD_HANDLE -> sessionFactory = getSessionFactory(
+					new MethodHandleBytecodeProvider( true, false ),
+					EntityInstantiatorPojoOptimized.class,
+					types
+			);
 		}
 		populateData( sessionFactory, count, types );
-		session = sessionFactory.openSession();
+		session = sessionKind.open( sessionFactory );
 		session.getTransaction().begin();
 
 		nextEntityTypeId = 0;
@@ -185,12 +194,9 @@ public class EntityInstantiators {
 				config.addAnnotatedClass( Fortune0.class );
 		}
 		final StandardServiceRegistryBuilder srb = config.getStandardServiceRegistryBuilder();
+		// the database is the one of hibernate.properties, selected with -Pdb
 		srb.applySetting( AvailableSettings.SHOW_SQL, false )
 				.applySetting( AvailableSettings.LOG_SESSION_METRICS, false )
-				.applySetting( AvailableSettings.DIALECT, "org.hibernate.dialect.H2Dialect" )
-				.applySetting( AvailableSettings.JAKARTA_JDBC_DRIVER, "org.h2.Driver" )
-				.applySetting( AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:test;DB_CLOSE_DELAY=-1" )
-				.applySetting( AvailableSettings.JAKARTA_JDBC_USER, "sa" )
 				.applySetting( AvailableSettings.HBM2DDL_AUTO, "create-drop" );
 		// force no runtime bytecode-enhancement
 		srb.addService( BytecodeProvider.class, bytecodeProvider );
@@ -258,7 +264,7 @@ public class EntityInstantiators {
 	}
 
 	@CompilerControl(CompilerControl.Mode.DONT_INLINE)
-	private static int queryFortune2(Session session, Blackhole bh) {
+	private static int queryFortune2(SharedSessionContract session, Blackhole bh) {
 		final List<Fortune2> results = session.createQuery( "from Fortune2", Fortune2.class ).getResultList();
 		int count = 0;
 		for ( Fortune2 fortune : results ) {
@@ -267,12 +273,14 @@ public class EntityInstantiators {
 			}
 			count++;
 		}
-		session.clear();
+		if ( session instanceof Session statefulSession ) {
+			statefulSession.clear();
+		}
 		return count;
 	}
 
 	@CompilerControl(CompilerControl.Mode.DONT_INLINE)
-	private static int queryFortune3(Session session, Blackhole bh) {
+	private static int queryFortune3(SharedSessionContract session, Blackhole bh) {
 		final List<Fortune3> results = session.createQuery( "from Fortune3", Fortune3.class ).getResultList();
 		int count = 0;
 		for ( Fortune3 fortune : results ) {
@@ -281,12 +289,14 @@ public class EntityInstantiators {
 			}
 			count++;
 		}
-		session.clear();
+		if ( session instanceof Session statefulSession ) {
+			statefulSession.clear();
+		}
 		return count;
 	}
 
 	@CompilerControl(CompilerControl.Mode.DONT_INLINE)
-	private static int queryFortune1(Session session, Blackhole bh) {
+	private static int queryFortune1(SharedSessionContract session, Blackhole bh) {
 		final List<Fortune1> results = session.createQuery( "from Fortune1", Fortune1.class ).getResultList();
 		int count = 0;
 		for ( Fortune1 fortune : results ) {
@@ -295,12 +305,14 @@ public class EntityInstantiators {
 			}
 			count++;
 		}
-		session.clear();
+		if ( session instanceof Session statefulSession ) {
+			statefulSession.clear();
+		}
 		return count;
 	}
 
 	@CompilerControl(CompilerControl.Mode.DONT_INLINE)
-	private static int queryFortune0(Session session, Blackhole bh) {
+	private static int queryFortune0(SharedSessionContract session, Blackhole bh) {
 		final List<Fortune0> results = session.createQuery( "from Fortune0", Fortune0.class ).getResultList();
 		int count = 0;
 		for ( Fortune0 fortune0 : results ) {
@@ -309,7 +321,9 @@ public class EntityInstantiators {
 			}
 			count++;
 		}
-		session.clear();
+		if ( session instanceof Session statefulSession ) {
+			statefulSession.clear();
+		}
 		return count;
 	}
 
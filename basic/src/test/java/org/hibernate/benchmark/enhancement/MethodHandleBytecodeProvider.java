@@ -0,0 +1,292 @@
+package org.hibernate.benchmark.enhancement;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.bytecode.enhance.spi.EnhancementContext;
+import org.hibernate.bytecode.enhance.spi.Enhancer;
+import org.hibernate.bytecode.internal.bytebuddy.BytecodeProviderImpl;
+import org.hibernate.bytecode.spi.BytecodeProvider;
+import org.hibernate.bytecode.spi.ProxyFactoryFactory;
+import org.hibernate.bytecode.spi.ReflectionOptimizer;
+import org.hibernate.property.access.spi.PropertyAccess;
+
+import net.bytebuddy.jar.asm.ClassWriter;
+import net.bytebuddy.jar.asm.ConstantDynamic;
+import net.bytebuddy.jar.asm.Handle;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+
+/**
+ * {@link BytecodeProvider} whose optimizers only use the JDK instead of classes generated by ByteBuddy:
+ * <ul>
+ *     <li>the {@link ReflectionOptimizer.InstantiationOptimizer} is spun by {@link LambdaMetafactory},
+ *     i.e. a hidden class per entity calling the constructor</li>
+ *     <li>the {@link ReflectionOptimizer.AccessOptimizer} is a hidden class per entity, invoking a constant
+ *     {@link MethodHandle} per getter and setter, either the accessor methods or the fields</li>
+ * </ul>
+ * As with the ByteBuddy optimizers, each entity gets its own class, and an entity which cannot be optimized
+ * fails the bootstrap instead of falling back to reflection. The proxies are still provided by ByteBuddy.
+ */
+public class MethodHandleBytecodeProvider implements BytecodeProvider {
+	private static final MethodType GETTER_TYPE = MethodType.methodType( Object.class, Object.class );
+	private static final MethodType SETTER_TYPE = MethodType.methodType( void.class, Object.class, Object.class );
+	// hidden classes are defined in the package of their lookup, i.e. this one
+	private static final String ACCESS_OPTIMIZER_NAME =
+			MethodHandleBytecodeProvider.class.getPackageName().replace( '.', '/' ) + "/MethodHandleAccessOptimizer";
+	private static final Handle CLASS_DATA_AT = new Handle(
+			Opcodes.H_INVOKESTATIC,
+			Type.getInternalName( MethodHandles.class ),
+			"classDataAt",
+			MethodType.methodType( Object.class, MethodHandles.Lookup.class, String.class, Class.class, int.class )
+					.toMethodDescriptorString(),
+			false
+	);
+
+	private final BytecodeProviderImpl delegate = new BytecodeProviderImpl();
+	private final boolean instantiation;
+	private final boolean access;
+
+	/**
+	 * @param instantiation whether to provide an {@link ReflectionOptimizer.InstantiationOptimizer}
+	 * @param access whether to provide an {@link ReflectionOptimizer.AccessOptimizer}
+	 */
+	public MethodHandleBytecodeProvider(boolean instantiation, boolean access) {
+		this.instantiation = instantiation;
+		this.access = access;
+	}
+
+	@Override
+	public ProxyFactoryFactory getProxyFactoryFactory() {
+		return delegate.getProxyFactoryFactory();
+	}
+
+	@SuppressWarnings("removal")
+	@Override
+	public ReflectionOptimizer getReflectionOptimizer(
+			Class clazz,
+			String[] getterNames,
+			String[] setterNames,
+			Class[] types) {
+		return null;
+	}
+
+	@Override
+	public ReflectionOptimizer getReflectionOptimizer(
+			Class<?> clazz,
+			Map<String, PropertyAccess> propertyAccessMap) {
+		final ReflectionOptimizer.InstantiationOptimizer instantiationOptimizer =
+				instantiation ? instantiationOptimizer( clazz ) : null;
+		final ReflectionOptimizer.AccessOptimizer accessOptimizer =
+				access ? accessOptimizer( clazz, propertyAccessMap ) : null;
+		if ( instantiationOptimizer == null && accessOptimizer == null ) {
+			return null;
+		}
+		return new ReflectionOptimizer() {
+			@Override
+			public InstantiationOptimizer getInstantiationOptimizer() {
+				return instantiationOptimizer;
+			}
+
+			@Override
+			public AccessOptimizer getAccessOptimizer() {
+				return accessOptimizer;
+			}
+		};
+	}
+
+	private static ReflectionOptimizer.InstantiationOptimizer instantiationOptimizer(Class<?> clazz) {
+		if ( Modifier.isAbstract( clazz.getModifiers() ) ) {
+			return null;
+		}
+		try {
+			final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn( clazz, MethodHandles.lookup() );
+			final MethodHandle constructor = lookup.findConstructor( clazz, MethodType.methodType( void.class ) );
+			final CallSite callSite = LambdaMetafactory.metafactory(
+					lookup,
+					"newInstance",
+					MethodType.methodType( ReflectionOptimizer.InstantiationOptimizer.class ),
+					MethodType.methodType( Object.class ),
+					constructor,
+					MethodType.methodType( clazz )
+			);
+			return (ReflectionOptimizer.InstantiationOptimizer) callSite.getTarget().invokeExact();
+		}
+		catch (Throwable e) {
+			throw new IllegalStateException( "Could not spin the instantiation optimizer of " + clazz, e );
+		}
+	}
+
+	private static ReflectionOptimizer.AccessOptimizer accessOptimizer(
+			Class<?> clazz,
+			Map<String, PropertyAccess> propertyAccessMap) {
+		final String[] propertyNames = propertyAccessMap.keySet().toArray( new String[0] );
+		// the class data of the access optimizer: the property names, the getters, then the setters
+		final Object[] classData = new Object[1 + 2 * propertyNames.length];
+		classData[0] = propertyNames;
+		try {
+			final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn( clazz, MethodHandles.lookup() );
+			for ( int i = 0; i < propertyNames.length; i++ ) {
+				final PropertyAccess propertyAccess = propertyAccessMap.get( propertyNames[i] );
+				final Member getter = propertyAccess.getGetter().getMember();
+				final Method setter = propertyAccess.getSetter().getMethod();
+				if ( getter instanceof Method method ) {
+					classData[1 + i] = lookup.unreflect( method ).asType( GETTER_TYPE );
+				}
+				else if ( getter instanceof Field field ) {
+					classData[1 + i] = lookup.unreflectGetter( field ).asType( GETTER_TYPE );
+				}
+				else {
+					throw new IllegalStateException( "Unsupported getter of " + clazz + "#" + propertyNames[i] + ": " + getter );
+				}
+				if ( setter != null ) {
+					classData[1 + propertyNames.length + i] = lookup.unreflect( setter ).asType( SETTER_TYPE );
+				}
+				else if ( getter instanceof Field field && !Modifier.isFinal( field.getModifiers() ) ) {
+					classData[1 + propertyNames.length + i] = lookup.unreflectSetter( field ).asType( SETTER_TYPE );
+				}
+				else {
+					throw new IllegalStateException( "No setter for " + clazz + "#" + propertyNames[i] );
+				}
+			}
+			// a hidden class per entity, so that each one has its own call sites and constant method handles
+			final MethodHandles.Lookup optimizerLookup = MethodHandles.lookup().defineHiddenClassWithClassData(
+					accessOptimizerBytes( propertyNames.length ),
+					List.of( classData ),
+					true
+			);
+			return (ReflectionOptimizer.AccessOptimizer) optimizerLookup
+					.findConstructor( optimizerLookup.lookupClass(), MethodType.methodType( void.class ) )
+					.invoke();
+		}
+		catch (Throwable e) {
+			throw new IllegalStateException( "Could not spin the access optimizer of " + clazz, e );
+		}
+	}
+
+	/**
+	 * The bytecode of an {@link ReflectionOptimizer.AccessOptimizer} of the given number of properties, which loads
+	 * its property names and method handles from its class data as dynamic constants, i.e. constants the JIT can
+	 * inline through
+	 */
+	private static byte[] accessOptimizerBytes(int properties) {
+		final ClassWriter classWriter = new ClassWriter( ClassWriter.COMPUTE_MAXS );
+		classWriter.visit(
+				Opcodes.V17,
+				Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+				ACCESS_OPTIMIZER_NAME,
+				null,
+				Type.getInternalName( Object.class ),
+				new String[] { Type.getInternalName( ReflectionOptimizer.AccessOptimizer.class ) }
+		);
+
+		MethodVisitor method = classWriter.visitMethod( Opcodes.ACC_PUBLIC, "<init>", "()V", null, null );
+		method.visitCode();
+		method.visitVarInsn( Opcodes.ALOAD, 0 );
+		method.visitMethodInsn( Opcodes.INVOKESPECIAL, Type.getInternalName( Object.class ), "<init>", "()V", false );
+		method.visitInsn( Opcodes.RETURN );
+		method.visitMaxs( 0, 0 );
+		method.visitEnd();
+
+		method = classWriter.visitMethod( Opcodes.ACC_PUBLIC, "getPropertyNames", "()[Ljava/lang/String;", null, null );
+		method.visitCode();
+		method.visitLdcInsn( classDataAt( String[].class, 0 ) );
+		method.visitInsn( Opcodes.ARETURN );
+		method.visitMaxs( 0, 0 );
+		method.visitEnd();
+
+		method = classWriter.visitMethod(
+				Opcodes.ACC_PUBLIC,
+				"getPropertyValues",
+				"(Ljava/lang/Object;)[Ljava/lang/Object;",
+				null,
+				null
+		);
+		method.visitCode();
+		pushInt( method, properties );
+		method.visitTypeInsn( Opcodes.ANEWARRAY, Type.getInternalName( Object.class ) );
+		for ( int i = 0; i < properties; i++ ) {
+			// values[i] = getter.invokeExact( object )
+			method.visitInsn( Opcodes.DUP );
+			pushInt( method, i );
+			method.visitLdcInsn( classDataAt( MethodHandle.class, 1 + i ) );
+			method.visitVarInsn( Opcodes.ALOAD, 1 );
+			method.visitMethodInsn(
+					Opcodes.INVOKEVIRTUAL,
+					Type.getInternalName( MethodHandle.class ),
+					"invokeExact",
+					GETTER_TYPE.toMethodDescriptorString(),
+					false
+			);
+			method.visitInsn( Opcodes.AASTORE );
+		}
+		method.visitInsn( Opcodes.ARETURN );
+		method.visitMaxs( 0, 0 );
+		method.visitEnd();
+
+		method = classWriter.visitMethod(
+				Opcodes.ACC_PUBLIC,
+				"setPropertyValues",
+				"(Ljava/lang/Object;[Ljava/lang/Object;)V",
+				null,
+				null
+		);
+		method.visitCode();
+		for ( int i = 0; i < properties; i++ ) {
+			// setter.invokeExact( object, values[i] )
+			method.visitLdcInsn( classDataAt( MethodHandle.class, 1 + properties + i ) );
+			method.visitVarInsn( Opcodes.ALOAD, 1 );
+			method.visitVarInsn( Opcodes.ALOAD, 2 );
+			pushInt( method, i );
+			method.visitInsn( Opcodes.AALOAD );
+			method.visitMethodInsn(
+					Opcodes.INVOKEVIRTUAL,
+					Type.getInternalName( MethodHandle.class ),
+					"invokeExact",
+					SETTER_TYPE.toMethodDescriptorString(),
+					false
+			);
+		}
+		method.visitInsn( Opcodes.RETURN );
+		method.visitMaxs( 0, 0 );
+		method.visitEnd();
+
+		classWriter.visitEnd();
+		return classWriter.toByteArray();
+	}
+
+	private static ConstantDynamic classDataAt(Class<?> type, int index) {
+		return new ConstantDynamic( ConstantDescs.DEFAULT_NAME, Type.getDescriptor( type ), CLASS_DATA_AT, index );
+	}
+
+	private static void pushInt(MethodVisitor method, int value) {
+		if ( value <= 5 ) {
+			method.visitInsn( Opcodes.ICONST_0 + value );
+		}
+		else if ( value <= Byte.MAX_VALUE ) {
+			method.visitIntInsn( Opcodes.BIPUSH, value );
+		}
+		else if ( value <= Short.MAX_VALUE ) {
+			method.visitIntInsn( Opcodes.SIPUSH, value );
+		}
+		else {
+			method.visitLdcInsn( value );
+		}
+	}
+
+	@Override
+	public Enhancer getEnhancer(EnhancementContext enhancementContext) {
+		return null;
+	}
+}
@@ -0,0 +1,18 @@
+package org.hibernate.benchmark.enhancement;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.SharedSessionContract;
+
+/**
+ * The kind of session the enhancement benchmarks query their entities with
+ */
+public enum SessionKind {
+	STATEFUL, STATELESS;
+
+	SharedSessionContract open(SessionFactory sessionFactory) {
+		return switch ( this ) {
+			case STATEFUL -> sessionFactory.openSession();
+			case STATELESS -> sessionFactory.openStatelessSession();
+		};
+	}
+}
@@ -0,0 +1,191 @@
+package org.hibernate.benchmark.fetch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Persistence;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Loads every {@link Author} and their {@link Book}s with the different fetch strategies of a lazy collection:
+ * <ul>
+ *     <li>{@code BATCH_<n>}: {@code hibernate.default_batch_fetch_size} set to {@code n}</li>
+ *     <li>{@code SUBSELECT}: {@code @Fetch(FetchMode.SUBSELECT)}, through {@link Author#subselectBooks}</li>
+ *     <li>{@code JOIN_FETCH}: a {@code join fetch} query</li>
+ *     <li>{@code ENTITY_GRAPH}: a {@code jakarta.persistence.loadgraph} entity graph</li>
+ * </ul>
+ * The batch size is part of the strategy rather than a separate parameter, since it doesn't affect the other ones.
+ * Run it with {@code -prof gc -prof org.hibernate.benchmark.util.HibernateStatisticsProfiler} to get
+ * the allocations and the statements per operation, i.e. per {@link #authors} authors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class FetchStrategies {
+
+	private static final int BOOKS_PER_AUTHOR = 5;
+
+	protected EntityManagerFactory entityManagerFactory;
+
+	@Param({"BATCH_1", "BATCH_10", "BATCH_32", "BATCH_128", "SUBSELECT", "JOIN_FETCH", "ENTITY_GRAPH"})
+	public String fetch;
+
+	@Param({"1000"})
+	public int authors;
+
+	@Setup
+	public void setup() {
+		final int batchSize = fetch.startsWith( "BATCH_" ) ? Integer.parseInt( fetch.substring( "BATCH_".length() ) ) : 1;
+		entityManagerFactory = Persistence.createEntityManagerFactory(
+				"FetchStrategies",
+				Map.of( "hibernate.default_batch_fetch_size", batchSize )
+		);
+
+		final EntityManager em = entityManagerFactory.createEntityManager();
+		em.getTransaction().begin();
+		em.createQuery( "delete Book" ).executeUpdate();
+		em.createQuery( "delete Author" ).executeUpdate();
+		for ( int i = 0; i < authors; i++ ) {
+			populateData( em, i );
+		}
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@TearDown
+	public void destroy() {
+		entityManagerFactory.close();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class EventCounters {
+		public long authors;
+	}
+
+	@Benchmark
+	public void single(Blackhole bh, EventCounters counters) {
+		final EntityManager em = entityManagerFactory.createEntityManager();
+		try {
+			final List<Author> authors = switch ( fetch ) {
+				case "JOIN_FETCH" -> em.createQuery( "select a from Author a left join fetch a.books", Author.class )
+						.getResultList();
+				case "ENTITY_GRAPH" -> {
+					final EntityGraph<Author> graph = em.createEntityGraph( Author.class );
+					graph.addAttributeNodes( "books" );
+					yield em.createQuery( "from Author", Author.class )
+							.setHint( "jakarta.persistence.loadgraph", graph )
+							.getResultList();
+				}
+				default -> em.createQuery( "from Author", Author.class ).getResultList();
+			};
+			final boolean subselect = "SUBSELECT".equals( fetch );
+			for ( Author author : authors ) {
+				for ( Book book : subselect ? author.subselectBooks : author.books ) {
+					if ( bh != null ) {
+						bh.consume( book );
+					}
+				}
+				if ( bh != null ) {
+					bh.consume( author );
+				}
+			}
+			if ( counters != null ) {
+				counters.authors += authors.size();
+			}
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	public void populateData(EntityManager entityManager, int i) {
+		final Author author = new Author();
+		author.authorId = i;
+		author.name = "David Gourley";
+		entityManager.persist( author );
+
+		for ( int j = 0; j < BOOKS_PER_AUTHOR; j++ ) {
+			final Book book = new Book();
+			book.bookId = i * BOOKS_PER_AUTHOR + j;
+			book.name = "HTTP Definitive guide " + book.bookId;
+			book.author = author;
+			entityManager.persist( book );
+		}
+	}
+
+	public static void main(String[] args) {
+		for ( String fetch : List.of( "BATCH_1", "BATCH_10", "BATCH_32", "BATCH_128", "SUBSELECT", "JOIN_FETCH", "ENTITY_GRAPH" ) ) {
+			FetchStrategies jpaBenchmark = new FetchStrategies();
+			jpaBenchmark.fetch = fetch;
+			jpaBenchmark.authors = 1000;
+			jpaBenchmark.setup();
+
+			for ( int i = 0; i < 5; i++ ) {
+				jpaBenchmark.single( null, null );
+			}
+
+			jpaBenchmark.destroy();
+		}
+	}
+
+	@Entity(name = "Author")
+	public static class Author {
+
+		@Id
+		public Integer authorId;
+
+		@Column
+		public String name;
+
+		@OneToMany(fetch = FetchType.LAZY, mappedBy = "author")
+		public List<Book> books = new ArrayList<>();
+
+		/**
+		 * Same books as {@link #books}, fetched by subselect
+		 */
+		@OneToMany(fetch = FetchType.LAZY, mappedBy = "author")
+		@Fetch(FetchMode.SUBSELECT)
+		public List<Book> subselectBooks = new ArrayList<>();
+	}
+
+	@Entity(name = "Book")
+	public static class Book {
+
+		@Id
+		public Integer bookId;
+
+		@Column
+		public String name;
+
+		@ManyToOne(fetch = FetchType.LAZY, optional = false)
+		@JoinColumn(name = "author_id", nullable = false)
+		public Author author;
+	}
+}
@@ -18,7 +18,9 @@ import jakarta.persistence.Persistence;
 import jakarta.persistence.Temporal;
 import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -27,6 +29,7 @@ import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
 @State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
 @Warmup(iterations = 3, time = 3)
 @Measurement(iterations = 3, time = 5)
 public class AutoFlush {
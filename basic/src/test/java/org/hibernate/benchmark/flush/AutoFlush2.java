@@ -3,6 +3,8 @@ package org.hibernate.benchmark.flush;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.benchmark.util.ReplayConnectionProvider;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -19,7 +21,10 @@ import jakarta.persistence.Persistence;
 import jakarta.persistence.Table;
 import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -28,6 +33,7 @@ import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
 @State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
 @Warmup(iterations = 3, time = 3)
 @Measurement(iterations = 3, time = 5)
 public class AutoFlush2 {
@@ -35,9 +41,12 @@ public class AutoFlush2 {
 	protected EntityManagerFactory entityManagerFactory;
 	protected EntityManager em;
 
+	@Param({ReplayConnectionProvider.DATABASE, ReplayConnectionProvider.REPLAY})
+	public String jdbc;
+
 	@Setup
 	public void setup() {
-		entityManagerFactory = Persistence.createEntityManagerFactory("AutoFlush2");
+		entityManagerFactory = Persistence.createEntityManagerFactory( "AutoFlush2", ReplayConnectionProvider.settings( jdbc ) );
 
 		em = entityManagerFactory.createEntityManager();
 		em.getTransaction().begin();
@@ -49,10 +58,17 @@ public class AutoFlush2 {
 		}
 		em.getTransaction().commit();
 		em.close();
+
+		if ( ReplayConnectionProvider.REPLAY.equals( jdbc ) ) {
+			// record the queries of a whole operation
+			single( null, null );
+			ReplayConnectionProvider.replay();
+		}
 	}
 
 	@TearDown
 	public void destroy() {
+		ReplayConnectionProvider.reset();
 		entityManagerFactory.close();
 	}
 
@@ -119,6 +135,7 @@ public class AutoFlush2 {
 
 	public static void main(String[] args) {
 		AutoFlush2 jpaBenchmark = new AutoFlush2();
+		jpaBenchmark.jdbc = ReplayConnectionProvider.REPLAY;
 		jpaBenchmark.setup();
 
 		for ( int i = 0; i < 5; i++ ) {
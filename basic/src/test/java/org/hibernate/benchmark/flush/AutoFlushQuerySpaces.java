@@ -0,0 +1,199 @@
+package org.hibernate.benchmark.flush;
+
+import java.util.List;
+
+import org.hibernate.query.NativeQuery;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Persistence;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Queries an unrelated {@link Target} table while the session holds dirty entities of {@link #managedTypes}
+ * different types:
+ * <ul>
+ *     <li>{@code HQL}: the query spaces are known, the dirty entities are checked but not flushed</li>
+ *     <li>{@code NATIVE}: no query space, every dirty entity is flushed before the query</li>
+ *     <li>{@code NATIVE_SYNCHRONIZED}: the query space is declared with {@link NativeQuery#addSynchronizedEntityClass(Class)}</li>
+ * </ul>
+ * The transaction is rolled back, so that only the auto flush writes to the database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class AutoFlushQuerySpaces {
+
+	private static final List<Class<? extends Item>> ITEM_TYPES = List.of( Item0.class, Item1.class, Item2.class, Item3.class );
+
+	protected EntityManagerFactory entityManagerFactory;
+	protected EntityManager em;
+
+	@Param({"HQL", "NATIVE", "NATIVE_SYNCHRONIZED"})
+	public String query;
+
+	@Param({"1", "2", "4"})
+	public int managedTypes;
+
+	/**
+	 * The number of managed entities, spread over the {@link #managedTypes}
+	 */
+	@Param({"1000"})
+	public int entities;
+
+	@Setup
+	public void setup() {
+		entityManagerFactory = Persistence.createEntityManagerFactory( "AutoFlushQuerySpaces" );
+
+		em = entityManagerFactory.createEntityManager();
+		em.getTransaction().begin();
+		em.createQuery( "delete Target" ).executeUpdate();
+		for ( Class<? extends Item> itemType : ITEM_TYPES ) {
+			em.createQuery( "delete " + itemType.getSimpleName() ).executeUpdate();
+		}
+		for ( int i = 0; i < 10; i++ ) {
+			final Target target = new Target();
+			target.id = i;
+			target.name = "target_" + i;
+			em.persist( target );
+		}
+		for ( int i = 0; i < entities; i++ ) {
+			populateData( em, i );
+		}
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@TearDown
+	public void destroy() {
+		entityManagerFactory.close();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class EventCounters {
+		public long objects;
+	}
+
+	@Benchmark
+	public void single(Blackhole bh, EventCounters counters) {
+		em = entityManagerFactory.createEntityManager();
+		em.getTransaction().begin();
+		try {
+			for ( int i = 0; i < managedTypes; i++ ) {
+				final List<? extends Item> items = em.createQuery( "from " + ITEM_TYPES.get( i ).getSimpleName(), ITEM_TYPES.get( i ) )
+						.getResultList();
+				for ( Item item : items ) {
+					item.counter++;
+				}
+			}
+			query( bh, counters );
+		}
+		finally {
+			em.getTransaction().rollback();
+			em.close();
+		}
+	}
+
+	protected void query(Blackhole bh, EventCounters counters) {
+		final List<?> results = switch ( query ) {
+			case "HQL" -> em.createQuery( "select t.id, t.name from Target t" ).getResultList();
+			case "NATIVE" -> em.createNativeQuery( "select t.id, t.name from Target t" ).getResultList();
+			case "NATIVE_SYNCHRONIZED" -> em.createNativeQuery( "select t.id, t.name from Target t" )
+					.unwrap( NativeQuery.class )
+					.addSynchronizedEntityClass( Target.class )
+					.getResultList();
+			default -> throw new IllegalArgumentException( "Unknown query: " + query );
+		};
+		for ( Object o : results ) {
+			if ( bh != null ) {
+				bh.consume( o );
+			}
+		}
+		if ( counters != null ) {
+			counters.objects += results.size();
+		}
+	}
+
+	public void populateData(EntityManager entityManager, int i) {
+		for ( int j = 0; j < managedTypes; j++ ) {
+			// same number of managed entities, whatever the number of types
+			if ( i % managedTypes == j ) {
+				final Item item = switch ( j ) {
+					case 0 -> new Item0();
+					case 1 -> new Item1();
+					case 2 -> new Item2();
+					default -> new Item3();
+				};
+				item.id = i;
+				item.name = "item_" + i;
+				entityManager.persist( item );
+			}
+		}
+	}
+
+	public static void main(String[] args) {
+		AutoFlushQuerySpaces jpaBenchmark = new AutoFlushQuerySpaces();
+		jpaBenchmark.managedTypes = 4;
+		jpaBenchmark.entities = 1000;
+		jpaBenchmark.setup();
+
+		for ( String query : List.of( "HQL", "NATIVE", "NATIVE_SYNCHRONIZED" ) ) {
+			jpaBenchmark.query = query;
+			for ( int i = 0; i < 5; i++ ) {
+				jpaBenchmark.single( null, null );
+			}
+		}
+
+		jpaBenchmark.destroy();
+	}
+
+	@Entity(name = "Target")
+	public static class Target {
+		@Id
+		public Integer id;
+
+		public String name;
+	}
+
+	@MappedSuperclass
+	public static abstract class Item {
+		@Id
+		public Integer id;
+
+		public String name;
+
+		public int counter;
+	}
+
+	@Entity(name = "Item0")
+	public static class Item0 extends Item {
+	}
+
+	@Entity(name = "Item1")
+	public static class Item1 extends Item {
+	}
+
+	@Entity(name = "Item2")
+	public static class Item2 extends Item {
+	}
+
+	@Entity(name = "Item3")
+	public static class Item3 extends Item {
+	}
+}
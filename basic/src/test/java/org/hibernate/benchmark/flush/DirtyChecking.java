@@ -0,0 +1,309 @@
+package org.hibernate.benchmark.flush;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.CustomEntityDirtinessStrategy;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.benchmark.enhancement.AccessOptimizers;
+import org.hibernate.benchmark.util.EnhancingClassLoader;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.ManagedEntity;
+import org.hibernate.persister.entity.EntityPersister;
+
+import org.hibernate.testing.orm.domain.gambit.EntityOfBasics;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Modifies {@link #dirtyAttributes} of the {@value #MUTABLE_ATTRIBUTES} mutable attributes of {@link #entities}
+ * managed entities, then flushes, with the three ways Hibernate can find the dirty attributes:
+ * <ul>
+ *     <li>{@code SNAPSHOT}: the default, every attribute is compared to the loaded state</li>
+ *     <li>{@code ENHANCED}: inline dirty tracking of the entities enhanced at runtime by {@link EnhancingClassLoader}</li>
+ *     <li>{@code CUSTOM}: a {@link CustomEntityDirtinessStrategy} fed by the application with the attributes it modified</li>
+ * </ul>
+ * The entities stay managed by the same session for the whole trial, and each flush is committed.
+ * The attributes are set through method handles in all the modes, since the enhanced classes are not the ones
+ * this class is compiled against.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class DirtyChecking {
+
+	private static final int MUTABLE_ATTRIBUTES = 14;
+
+	protected EntityManagerFactory entityManagerFactory;
+	protected EntityManagerFactory enhancedEntityManagerFactory;
+	protected Session session;
+	protected List<Object> managed;
+	protected MethodHandle[] setters;
+	protected Class<?>[] attributeTypes;
+	protected ChangeSetDirtinessStrategy dirtinessStrategy;
+	protected int version;
+
+	@Param({"ANOTHER_ENTITY", "ENTITY_OF_BASICS"})
+	public String model;
+
+	@Param({"SNAPSHOT", "ENHANCED", "CUSTOM"})
+	public String strategy;
+
+	@Param({"100", "1000", "10000"})
+	public int entities;
+
+	@Param({"0", "1", "4", "14"})
+	public int dirtyAttributes;
+
+	@Setup
+	public void setup() throws Exception {
+		if ( dirtyAttributes < 0 || dirtyAttributes > MUTABLE_ATTRIBUTES ) {
+			throw new IllegalArgumentException( "Invalid dirty attributes: " + dirtyAttributes );
+		}
+		final Map<String, Object> settings = new HashMap<>();
+		if ( "CUSTOM".equals( strategy ) ) {
+			dirtinessStrategy = new ChangeSetDirtinessStrategy();
+			settings.put( AvailableSettings.CUSTOM_ENTITY_DIRTINESS_STRATEGY, dirtinessStrategy );
+		}
+		entityManagerFactory = Persistence.createEntityManagerFactory( "DirtyChecking", settings );
+
+		final EntityManager em = entityManagerFactory.createEntityManager();
+		em.getTransaction().begin();
+		for ( int i = 0; i < entities; i++ ) {
+			em.persist( "ANOTHER_ENTITY".equals( model )
+								? AccessOptimizers.randomAnotherEntity( i )
+								: AccessOptimizers.randomEntityOfBasics( i ) );
+		}
+		em.getTransaction().commit();
+		em.close();
+
+		EntityManagerFactory factory = entityManagerFactory;
+		if ( "ENHANCED".equals( strategy ) ) {
+			// same tables, kept by the plain factory
+			enhancedEntityManagerFactory = Persistence.createEntityManagerFactory(
+					"DirtyChecking",
+					Map.of(
+							AvailableSettings.CLASSLOADERS, List.of( new EnhancingClassLoader( List.of(
+									AccessOptimizers.AnotherEntity.class.getName(),
+									EntityOfBasics.class.getName()
+							) ) ),
+							AvailableSettings.HBM2DDL_AUTO, "none"
+					)
+			);
+			factory = enhancedEntityManagerFactory;
+		}
+
+		session = factory.unwrap( SessionFactory.class ).openSession();
+		session.beginTransaction();
+		managed = new ArrayList<>( session.createSelectionQuery( "from " + entityName(), Object.class ).getResultList() );
+		if ( "ENHANCED".equals( strategy ) && !( managed.get( 0 ) instanceof ManagedEntity ) ) {
+			throw new IllegalStateException( "Not enhanced: " + managed.get( 0 ).getClass() );
+		}
+		lookupSetters( managed.get( 0 ).getClass() );
+	}
+
+	@TearDown
+	public void destroy() {
+		session.getTransaction().rollback();
+		session.close();
+		if ( enhancedEntityManagerFactory != null ) {
+			enhancedEntityManagerFactory.close();
+			enhancedEntityManagerFactory = null;
+		}
+		entityManagerFactory.close();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class EventCounters {
+		public long entities;
+	}
+
+	@Benchmark
+	public void flush(EventCounters counters) throws Throwable {
+		version++;
+		for ( Object entity : managed ) {
+			for ( int a = 0; a < dirtyAttributes; a++ ) {
+				setters[a].invokeExact( entity, value( attributeTypes[a], version ) );
+			}
+			if ( dirtinessStrategy != null && dirtyAttributes > 0 ) {
+				dirtinessStrategy.changed( entity );
+			}
+		}
+		session.flush();
+		session.getTransaction().commit();
+		session.beginTransaction();
+		if ( counters != null ) {
+			counters.entities += managed.size();
+		}
+	}
+
+	private String entityName() {
+		return switch ( model ) {
+			case "ANOTHER_ENTITY" -> "AnotherEntity";
+			case "ENTITY_OF_BASICS" -> "EntityOfBasics";
+			default -> throw new IllegalArgumentException( "Unknown model: " + model );
+		};
+	}
+
+	/**
+	 * The mutable attributes of the model, the natural id and the enums (which can't be shared with the
+	 * enhanced classes) excluded
+	 */
+	private List<String> attributeNames() {
+		return switch ( model ) {
+			case "ANOTHER_ENTITY" -> List.of(
+					"someString", "someLong", "someDate", "someInstant",
+					"field0", "field1", "field2", "field3", "field4", "field5", "field6", "field7", "field8", "field9"
+			);
+			case "ENTITY_OF_BASICS" -> List.of(
+					"theString", "theInteger", "theInt", "theShort", "theDouble", "theBoolean", "theDate",
+					"theTimestamp", "theInstant", "theLocalDateTime", "theLocalDate", "theLocalTime", "theUuid", "theField"
+			);
+			default -> throw new IllegalArgumentException( "Unknown model: " + model );
+		};
+	}
+
+	private void lookupSetters(Class<?> entityClass) throws ReflectiveOperationException {
+		final List<String> names = attributeNames().subList( 0, dirtyAttributes );
+		setters = new MethodHandle[names.size()];
+		attributeTypes = new Class<?>[names.size()];
+		for ( int a = 0; a < names.size(); a++ ) {
+			final String setterName = "set" + Character.toUpperCase( names.get( a ).charAt( 0 ) ) + names.get( a ).substring( 1 );
+			final Method setter = Arrays.stream( entityClass.getMethods() )
+					.filter( method -> method.getName().equals( setterName ) && method.getParameterCount() == 1 )
+					.findFirst()
+					.orElseThrow( () -> new NoSuchMethodException( setterName ) );
+			attributeTypes[a] = setter.getParameterTypes()[0];
+			setters[a] = MethodHandles.publicLookup()
+					.unreflect( setter )
+					.asType( MethodType.methodType( void.class, Object.class, Object.class ) );
+		}
+		if ( dirtinessStrategy != null ) {
+			dirtinessStrategy.dirtyAttributes = Set.copyOf( names );
+		}
+	}
+
+	/**
+	 * A value of the given type which is different for each version
+	 */
+	private static Object value(Class<?> type, int version) {
+		if ( type == String.class ) {
+			return "dirty_" + version;
+		}
+		else if ( type == Integer.class || type == int.class ) {
+			return version;
+		}
+		else if ( type == Long.class || type == long.class ) {
+			return (long) version;
+		}
+		else if ( type == Short.class || type == short.class ) {
+			return (short) version;
+		}
+		else if ( type == Double.class || type == double.class ) {
+			return (double) version;
+		}
+		else if ( type == Boolean.class || type == boolean.class ) {
+			return version % 2 == 0;
+		}
+		else if ( type == java.util.Date.class ) {
+			return new java.util.Date( version * 86_400_000L );
+		}
+		else if ( type == Instant.class ) {
+			return Instant.ofEpochSecond( version );
+		}
+		else if ( type == LocalDateTime.class ) {
+			return LocalDateTime.of( 2000, 1, 1, 0, 0 ).plusSeconds( version );
+		}
+		else if ( type == LocalDate.class ) {
+			return LocalDate.ofEpochDay( version );
+		}
+		else if ( type == LocalTime.class ) {
+			return LocalTime.ofSecondOfDay( version % 86_400 );
+		}
+		else if ( type == UUID.class ) {
+			return new UUID( 0, version );
+		}
+		throw new IllegalArgumentException( "Unsupported attribute type: " + type );
+	}
+
+	/**
+	 * {@link CustomEntityDirtinessStrategy} trusting the application, which records the entities it modified
+	 * and always modifies the same attributes
+	 */
+	static class ChangeSetDirtinessStrategy implements CustomEntityDirtinessStrategy {
+		private final Set<Object> changed = Collections.newSetFromMap( new IdentityHashMap<>() );
+		private Set<String> dirtyAttributes = Set.of();
+
+		void changed(Object entity) {
+			changed.add( entity );
+		}
+
+		@Override
+		public boolean canDirtyCheck(Object entity, EntityPersister persister, Session session) {
+			return true;
+		}
+
+		@Override
+		public boolean isDirty(Object entity, EntityPersister persister, Session session) {
+			return changed.contains( entity );
+		}
+
+		@Override
+		public void resetDirty(Object entity, EntityPersister persister, Session session) {
+			changed.remove( entity );
+		}
+
+		@Override
+		public void findDirty(Object entity, EntityPersister persister, Session session, DirtyCheckContext dirtyCheckContext) {
+			dirtyCheckContext.doDirtyChecking( attributeInformation -> dirtyAttributes.contains( attributeInformation.getName() ) );
+		}
+	}
+
+	public static void main(String[] args) throws Throwable {
+		for ( String model : List.of( "ANOTHER_ENTITY", "ENTITY_OF_BASICS" ) ) {
+			for ( String strategy : List.of( "SNAPSHOT", "ENHANCED", "CUSTOM" ) ) {
+				final DirtyChecking benchmark = new DirtyChecking();
+				benchmark.model = model;
+				benchmark.strategy = strategy;
+				benchmark.entities = 100;
+				benchmark.dirtyAttributes = 4;
+				benchmark.setup();
+				for ( int i = 0; i < 5; i++ ) {
+					benchmark.flush( null );
+				}
+				benchmark.destroy();
+			}
+		}
+	}
+}
@@ -10,8 +10,11 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.Session;
 import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.DiscriminatorOptions;
 import org.hibernate.annotations.Fetch;
@@ -24,7 +27,10 @@ import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -33,35 +39,65 @@ import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
 @State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
 @Warmup(iterations = 3, time = 3)
 @Measurement(iterations = 3, time = 5)
 public class PartialFlush {
 
-	private static final Integer EGGPLANT_ID = Integer.valueOf(42);
-	private static final Integer PASSION_FRUIT_ID = Integer.valueOf(43);
-	private static final Integer PEACH_TYPE_ID = Integer.valueOf(44);
+	public static final Integer EGGPLANT_ID = Integer.valueOf(42);
+	public static final Integer PASSION_FRUIT_ID = Integer.valueOf(43);
+	public static final Integer PEACH_TYPE_ID = Integer.valueOf(44);
 
 	private int idSequence = 0;
 
 	protected EntityManagerFactory entityManagerFactory;
 	protected EntityManager em;
 
+	/**
+	 * The number of apples created, i.e. the size of the persistence context when the last auto flush happens
+	 */
+	@Param({"100", "1000", "5000", "20000"})
+	public int apples;
+
 	@Setup
 	public void setup() {
-		entityManagerFactory = Persistence.createEntityManagerFactory("PartialFlush");
+		entityManagerFactory = Persistence.createEntityManagerFactory( "PartialFlush", settings() );
 
 		em = entityManagerFactory.createEntityManager();
 		em.getTransaction().begin();
+		populateReferenceData( em );
+		em.getTransaction().commit();
+		em.close();
+	}
 
+	/**
+	 * Persists the entities referenced by the apples and apricots
+	 */
+	public void populateReferenceData(EntityManager em) {
 		Eggplant eggplant = createEggplant(em);
 		Rockmelon rockmelon = createRockmelon(em);
 		Strawberry strawberry = createStrawberry(em, rockmelon);
 		createStrawberryEggplantLink(em, strawberry, eggplant);
 		createPassionFruit(em);
 		createPeachType(em);
+	}
 
-		em.getTransaction().commit();
-		em.close();
+	/**
+	 * Persists {@link #apples} apples and their apricots, without the queries in between,
+	 * on top of the {@link #populateReferenceData(EntityManager) reference data}
+	 */
+	public void populateData(EntityManager em) {
+		Eggplant eggplant = em.find(Eggplant.class, EGGPLANT_ID);
+		for (Apple apple : createApples(em)) {
+			createApricot(em, eggplant, apple);
+		}
+	}
+
+	/**
+	 * Settings overriding the persistence unit ones
+	 */
+	protected Map<String, Object> settings() {
+		return Map.of();
 	}
 
 	@TearDown
@@ -75,9 +111,59 @@ public class PartialFlush {
 		public long objects;
 	}
 
+	/**
+	 * Reported as rates: divide them by the score to get the number of flushes and the time spent flushing
+	 * per operation, or {@code autoFlushNanos} by 10^9 to get the fraction of the time spent auto flushing.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class FlushCounters {
+		public long flushes;
+		public long flushNanos;
+		public long autoFlushes;
+		public long autoFlushNanos;
+	}
+
+	/**
+	 * Auto flushes are partial flushes, which happen before every query even when there is nothing to flush
+	 */
+	private static class FlushListener extends BaseSessionEventListener {
+		private final FlushCounters counters;
+		private long start;
+
+		private FlushListener(FlushCounters counters) {
+			this.counters = counters;
+		}
+
+		@Override
+		public void flushStart() {
+			start = System.nanoTime();
+		}
+
+		@Override
+		public void flushEnd(int numberOfEntities, int numberOfCollections) {
+			counters.flushes++;
+			counters.flushNanos += System.nanoTime() - start;
+		}
+
+		@Override
+		public void partialFlushStart() {
+			start = System.nanoTime();
+		}
+
+		@Override
+		public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+			counters.autoFlushes++;
+			counters.autoFlushNanos += System.nanoTime() - start;
+		}
+	}
+
 	@Benchmark
-	public void single(Blackhole bh, EventCounters counters) {
+	public void single(Blackhole bh, EventCounters counters, FlushCounters flushCounters) {
 		em = entityManagerFactory.createEntityManager();
+		if ( flushCounters != null ) {
+			em.unwrap( Session.class ).addEventListeners( new FlushListener( flushCounters ) );
+		}
 		em.getTransaction().begin();
 		try {
 			writeEntities( bh, counters );
@@ -116,16 +202,17 @@ public class PartialFlush {
 
 	public static void main(String[] args) {
 		PartialFlush jpaBenchmark = new PartialFlush();
+		jpaBenchmark.apples = 1000;
 		jpaBenchmark.setup();
 
 		for ( int i = 0; i < 5; i++ ) {
-			jpaBenchmark.single(null, null);
+			jpaBenchmark.single(null, null, null);
 		}
 
 		jpaBenchmark.destroy();
 	}
 
-	private void createApricot(EntityManager em, Eggplant eggplant, Apple apple) {
+	protected void createApricot(EntityManager em, Eggplant eggplant, Apple apple) {
 		Apricot apricot = new Apricot();
 		apricot.setId(++idSequence);
 		apricot.setRaspberry(eggplant);
@@ -198,13 +285,13 @@ public class PartialFlush {
 		LocalDate baseDate = LocalDate.of( 2024, 8, 7);
 
 		Collection<Apple> apples = new ArrayList<>();
-		for (int i = 0; i < 1000; ++i) {
+		for (int i = 0; i < this.apples; ++i) {
 			apples.add(createPeach(em, pf, pt, baseDate.plusDays(i)));
 		}
 		return apples;
 	}
 
-	private Apple createPeach(EntityManager em, PassionFruit pf, PeachType pt, LocalDate date) {
+	protected Apple createPeach(EntityManager em, PassionFruit pf, PeachType pt, LocalDate date) {
 		Peach peach = new Peach();
 		peach.setId(++idSequence);
 		peach.setAppleType(pt);
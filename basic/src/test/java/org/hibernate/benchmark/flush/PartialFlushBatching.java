@@ -0,0 +1,81 @@
+package org.hibernate.benchmark.flush;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Writes the {@link PartialFlush} graph without the queries in between, with the peach and apricot inserts,
+ * and then the apple and apricot updates, interleaved: JDBC batches are only as large as the runs of statements
+ * on the same table, unless {@code hibernate.order_inserts}/{@code hibernate.order_updates} sort the actions.
+ * <p>
+ * Run it with {@code -prof org.hibernate.benchmark.util.HibernateStatisticsProfiler} to get the number of
+ * statements per operation, while the {@code flushNanos} counter includes the sorting of the actions.
+ */
+public class PartialFlushBatching extends PartialFlush {
+
+	/**
+	 * {@code hibernate.jdbc.batch_size}, {@code 0} disables batching
+	 */
+	@Param({"0", "10", "50", "200"})
+	public int batchSize;
+
+	@Param({"false", "true"})
+	public boolean orderInserts;
+
+	@Param({"false", "true"})
+	public boolean orderUpdates;
+
+	@Override
+	protected Map<String, Object> settings() {
+		return Map.of(
+				"hibernate.jdbc.batch_size", batchSize,
+				"hibernate.order_inserts", orderInserts,
+				"hibernate.order_updates", orderUpdates
+		);
+	}
+
+	@Override
+	protected void writeEntities(Blackhole bh, EventCounters counters) {
+		Eggplant eggplant = em.find( Eggplant.class, EGGPLANT_ID );
+		PassionFruit pf = em.find( PassionFruit.class, PASSION_FRUIT_ID );
+		PeachType pt = em.find( PeachType.class, PEACH_TYPE_ID );
+		LocalDate baseDate = LocalDate.of( 2024, 8, 7 );
+
+		List<Apple> apples = new ArrayList<>();
+		for ( int i = 0; i < this.apples; ++i ) {
+			Apple apple = createPeach( em, pf, pt, baseDate.plusDays( i ) );
+			createApricot( em, eggplant, apple );
+			apples.add( apple );
+		}
+		em.flush();
+
+		// updated on commit
+		for ( Apple apple : apples ) {
+			apple.setFlag1( Boolean.TRUE );
+			apple.getApricot().setValue5( "Goodbye World" );
+		}
+		if ( counters != null ) {
+			counters.objects += apples.size();
+		}
+	}
+
+	public static void main(String[] args) {
+		PartialFlushBatching jpaBenchmark = new PartialFlushBatching();
+		jpaBenchmark.apples = 1000;
+		jpaBenchmark.batchSize = 50;
+		jpaBenchmark.orderInserts = true;
+		jpaBenchmark.orderUpdates = true;
+		jpaBenchmark.setup();
+
+		for ( int i = 0; i < 5; i++ ) {
+			jpaBenchmark.single(null, null, null);
+		}
+
+		jpaBenchmark.destroy();
+	}
+}
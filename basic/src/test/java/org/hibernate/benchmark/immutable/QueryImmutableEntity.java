@@ -2,7 +2,10 @@ package org.hibernate.benchmark.immutable;
 
 import java.util.List;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
 import org.hibernate.annotations.Immutable;
+import org.hibernate.benchmark.util.ReplayConnectionProvider;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -14,6 +17,9 @@ import jakarta.persistence.Persistence;
 import jakarta.persistence.Table;
 import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -21,19 +27,31 @@ import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
 
 @State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
 public class QueryImmutableEntity {
 
 	protected EntityManagerFactory entityManagerFactory;
 	protected EntityManager em;
+	protected StatelessSession statelessSession;
+
+	@Param({ReplayConnectionProvider.DATABASE, ReplayConnectionProvider.REPLAY})
+	public String jdbc;
+
+	/**
+	 * The number of rows returned by the query, see {@link org.hibernate.benchmark.util.ResultSizeRegression}
+	 * to split the per query and per row costs
+	 */
+	@Param({"1", "10", "100", "1000", "10000", "100000"})
+	public int rows;
 
 	@Setup
 	public void setup() {
-		entityManagerFactory = Persistence.createEntityManagerFactory("QueryImmutableEntity");
+		entityManagerFactory = Persistence.createEntityManagerFactory( "QueryImmutableEntity", ReplayConnectionProvider.settings( jdbc ) );
 
 		em = entityManagerFactory.createEntityManager();
 		em.getTransaction().begin();
 		em.createQuery("delete Fortune").executeUpdate();
-		for (int i = 0; i < 1000; i++) {
+		for (int i = 0; i < rows; i++) {
 			populateData(em, i);
 		}
 		em.getTransaction().commit();
@@ -43,12 +61,22 @@ public class QueryImmutableEntity {
 		em.setFlushMode( FlushModeType.COMMIT );
 		em.getTransaction().begin();
 		queryFortune( null, null );
+
+		statelessSession = entityManagerFactory.unwrap( SessionFactory.class ).openStatelessSession();
+		statelessSession.beginTransaction();
+		queryFortuneStateless( null, null );
+		if ( ReplayConnectionProvider.REPLAY.equals( jdbc ) ) {
+			ReplayConnectionProvider.replay();
+		}
 	}
 
 	@TearDown
 	public void destroy() {
+		statelessSession.getTransaction().commit();
+		statelessSession.close();
 		em.getTransaction().commit();
 		em.close();
+		ReplayConnectionProvider.reset();
 		entityManagerFactory.close();
 	}
 
@@ -64,6 +92,14 @@ public class QueryImmutableEntity {
 		queryFortune( bh, counters );
 	}
 
+	/**
+	 * Same query as {@link #single}, without any persistence context to maintain
+	 */
+	@Benchmark
+	public void stateless(Blackhole bh, EventCounters counters) {
+		queryFortuneStateless( bh, counters );
+	}
+
 	protected void queryFortune(Blackhole bh, EventCounters counters) {
 		final List<Fortune> fortunes = em.createQuery( "from Fortune", Fortune.class ).getResultList();
 		for ( Fortune fortune : fortunes ) {
@@ -76,6 +112,18 @@ public class QueryImmutableEntity {
 		}
 	}
 
+	protected void queryFortuneStateless(Blackhole bh, EventCounters counters) {
+		final List<Fortune> fortunes = statelessSession.createQuery( "from Fortune", Fortune.class ).getResultList();
+		for ( Fortune fortune : fortunes ) {
+			if ( bh != null ) {
+				bh.consume( fortune );
+			}
+		}
+		if ( counters != null ) {
+			counters.queries += fortunes.size();
+		}
+	}
+
 	public void populateData(EntityManager entityManager, int i) {
 		final Fortune fortune = new Fortune();
 		fortune.id = (long) i;
@@ -96,10 +144,13 @@ public class QueryImmutableEntity {
 	}
 	public static void main(String[] args) {
 		QueryImmutableEntity jpaBenchmark = new QueryImmutableEntity();
+		jpaBenchmark.jdbc = ReplayConnectionProvider.REPLAY;
+		jpaBenchmark.rows = 1000;
 		jpaBenchmark.setup();
 
 		for ( int i = 0; i < 5; i++ ) {
 			jpaBenchmark.single(null, null);
+			jpaBenchmark.stateless(null, null);
 		}
 
 		jpaBenchmark.destroy();
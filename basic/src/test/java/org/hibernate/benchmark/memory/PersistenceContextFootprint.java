@@ -0,0 +1,214 @@
+package org.hibernate.benchmark.memory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.hibernate.Session;
+import org.hibernate.benchmark.enhancement.AccessOptimizers;
+import org.hibernate.benchmark.flush.AutoFlush;
+import org.hibernate.benchmark.flush.AutoFlush2;
+import org.hibernate.benchmark.flush.PartialFlush;
+import org.hibernate.benchmark.immutable.QueryImmutableEntity;
+import org.hibernate.benchmark.util.EnhancingClassLoader;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.ManagedEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.metamodel.ManagedType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loads {@link #count} rows of one of the existing models into a single session, and measures the heap retained
+ * by the session: entity instances, entries, keys, loaded state and collection snapshots.
+ * <ul>
+ *     <li>{@code PLAIN}: the entities as they are</li>
+ *     <li>{@code READ_ONLY}: {@link Session#setDefaultReadOnly(boolean)}, i.e. without the loaded state</li>
+ *     <li>{@code ENHANCED}: the same entities enhanced at runtime by {@link EnhancingClassLoader}</li>
+ * </ul>
+ * The {@code retainedBytes} counter divided by the {@code entities} counter is the number of bytes per entity,
+ * the time is meaningless since it includes the garbage collections forced to measure the retained heap.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class PersistenceContextFootprint {
+
+	private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+	protected EntityManagerFactory entityManagerFactory;
+	protected EntityManagerFactory enhancedEntityManagerFactory;
+
+	@Param({"FORTUNE", "FOO", "AUTHOR", "APPLE", "ENTITY_OF_BASICS"})
+	public String model;
+
+	@Param({"PLAIN", "READ_ONLY", "ENHANCED"})
+	public String mode;
+
+	@Param({"10000"})
+	public int count;
+
+	@Setup
+	public void setup() {
+		entityManagerFactory = Persistence.createEntityManagerFactory( "PersistenceContextFootprint" );
+
+		final EntityManager em = entityManagerFactory.createEntityManager();
+		em.getTransaction().begin();
+		populateData( em );
+		em.getTransaction().commit();
+		em.close();
+
+		if ( "ENHANCED".equals( mode ) ) {
+			final List<String> classNames = entityManagerFactory.getMetamodel().getManagedTypes().stream()
+					.map( ManagedType::getJavaType )
+					.map( Class::getName )
+					.collect( Collectors.toList() );
+			// same tables, kept by the plain factory
+			enhancedEntityManagerFactory = Persistence.createEntityManagerFactory(
+					"PersistenceContextFootprint",
+					Map.of(
+							AvailableSettings.CLASSLOADERS, List.of( new EnhancingClassLoader( classNames ) ),
+							AvailableSettings.HBM2DDL_AUTO, "none"
+					)
+			);
+			try (Session session = enhancedEntityManagerFactory.createEntityManager().unwrap( Session.class )) {
+				final Object entity = session.createSelectionQuery( queries().get( 0 ), Object.class ).setMaxResults( 1 ).getSingleResult();
+				if ( !( entity instanceof ManagedEntity ) ) {
+					throw new IllegalStateException( "Not enhanced: " + entity.getClass() );
+				}
+			}
+		}
+		// keeps the query plans and other caches of the factory out of the measurement
+		load( null );
+	}
+
+	@TearDown
+	public void destroy() {
+		if ( enhancedEntityManagerFactory != null ) {
+			enhancedEntityManagerFactory.close();
+			enhancedEntityManagerFactory = null;
+		}
+		entityManagerFactory.close();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class EventCounters {
+		public long retainedBytes;
+		public long entities;
+		public long collections;
+	}
+
+	@Benchmark
+	public void load(EventCounters counters) {
+		final EntityManagerFactory factory = "ENHANCED".equals( mode ) ? enhancedEntityManagerFactory : entityManagerFactory;
+		final long before = usedHeapAfterGc();
+		try (Session session = factory.createEntityManager().unwrap( Session.class )) {
+			session.setDefaultReadOnly( "READ_ONLY".equals( mode ) );
+			session.beginTransaction();
+			for ( String query : queries() ) {
+				session.createSelectionQuery( query, Object.class ).getResultList();
+			}
+			final long retained = usedHeapAfterGc() - before;
+			// the session is still reachable here
+			if ( counters != null ) {
+				counters.retainedBytes += retained;
+				counters.entities += session.getStatistics().getEntityCount();
+				counters.collections += session.getStatistics().getCollectionCount();
+			}
+			session.getTransaction().rollback();
+		}
+	}
+
+	private List<String> queries() {
+		return switch ( model ) {
+			case "FORTUNE" -> List.of( "from Fortune" );
+			case "FOO" -> List.of( "from Foo" );
+			// the collections are fetched by the query, since enhanced entities can't be used as AutoFlush2.Author
+			case "AUTHOR" -> List.of( "select a from Author a left join fetch a.books" );
+			case "APPLE" -> List.of( "from Apple", "from Apricot" );
+			case "ENTITY_OF_BASICS" -> List.of( "from EntityOfBasics" );
+			default -> throw new IllegalArgumentException( "Unknown model: " + model );
+		};
+	}
+
+	private void populateData(EntityManager em) {
+		switch ( model ) {
+			case "FORTUNE" -> {
+				final QueryImmutableEntity benchmark = new QueryImmutableEntity();
+				for ( int i = 0; i < count; i++ ) {
+					benchmark.populateData( em, i );
+				}
+			}
+			case "FOO" -> {
+				final AutoFlush benchmark = new AutoFlush();
+				for ( int i = 0; i < count; i++ ) {
+					benchmark.populateData( em, i );
+				}
+			}
+			case "AUTHOR" -> {
+				final AutoFlush2 benchmark = new AutoFlush2();
+				for ( int i = 0; i < count; i++ ) {
+					benchmark.populateData( em, i );
+				}
+			}
+			case "APPLE" -> {
+				final PartialFlush benchmark = new PartialFlush();
+				benchmark.apples = count;
+				benchmark.populateReferenceData( em );
+				em.flush();
+				benchmark.populateData( em );
+			}
+			case "ENTITY_OF_BASICS" -> {
+				for ( int i = 0; i < count; i++ ) {
+					em.persist( AccessOptimizers.randomEntityOfBasics( i ) );
+				}
+			}
+			default -> throw new IllegalArgumentException( "Unknown model: " + model );
+		}
+	}
+
+	private static long usedHeapAfterGc() {
+		System.gc();
+		System.gc();
+		return MEMORY.getHeapMemoryUsage().getUsed();
+	}
+
+	public static void main(String[] args) {
+		for ( String model : List.of( "FORTUNE", "FOO", "AUTHOR", "APPLE", "ENTITY_OF_BASICS" ) ) {
+			for ( String mode : List.of( "PLAIN", "READ_ONLY", "ENHANCED" ) ) {
+				PersistenceContextFootprint benchmark = new PersistenceContextFootprint();
+				benchmark.model = model;
+				benchmark.mode = mode;
+				benchmark.count = 1000;
+				benchmark.setup();
+
+				final EventCounters counters = new EventCounters();
+				benchmark.load( counters );
+				System.out.printf(
+						"%s %s: %d bytes per entity%n",
+						model,
+						mode,
+						counters.retainedBytes / counters.entities
+				);
+
+				benchmark.destroy();
+			}
+		}
+	}
+}
@@ -4,6 +4,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.benchmark.util.ReplayConnectionProvider;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -19,6 +23,8 @@ import jakarta.persistence.Persistence;
 import jakarta.persistence.Table;
 import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
@@ -27,6 +33,7 @@ import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
 
 @State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
 public class QueryOneToManyFetch {
 
 	private static final boolean IS_ORM_5 = GenerationType.values().length == 4;
@@ -34,13 +41,17 @@ public class QueryOneToManyFetch {
 
 	protected EntityManagerFactory entityManagerFactory;
 	protected EntityManager em;
+	protected StatelessSession statelessSession;
 
 	@Param({"1", "50"})
 	public int orderLines;
 
+	@Param({ReplayConnectionProvider.DATABASE, ReplayConnectionProvider.REPLAY})
+	public String jdbc;
+
 	@Setup
 	public void setup() {
-		entityManagerFactory = Persistence.createEntityManagerFactory("QueryOneToManyFetch");
+		entityManagerFactory = Persistence.createEntityManagerFactory( "QueryOneToManyFetch", ReplayConnectionProvider.settings( jdbc ) );
 
 		em = entityManagerFactory.createEntityManager();
 		em.getTransaction().begin();
@@ -56,12 +67,22 @@ public class QueryOneToManyFetch {
 		em.setFlushMode( FlushModeType.COMMIT );
 		em.getTransaction().begin();
 		queryOrders( null, null );
+
+		statelessSession = entityManagerFactory.unwrap( SessionFactory.class ).openStatelessSession();
+		statelessSession.beginTransaction();
+		queryOrdersStateless( null, null );
+		if ( ReplayConnectionProvider.REPLAY.equals( jdbc ) ) {
+			ReplayConnectionProvider.replay();
+		}
 	}
 
 	@TearDown
 	public void destroy() {
+		statelessSession.getTransaction().commit();
+		statelessSession.close();
 		em.getTransaction().commit();
 		em.close();
+		ReplayConnectionProvider.reset();
 		entityManagerFactory.close();
 	}
 
@@ -77,6 +98,14 @@ public class QueryOneToManyFetch {
 		queryOrders( bh, counters );
 	}
 
+	/**
+	 * Same join fetch as {@link #single}, without any persistence context to maintain
+	 */
+	@Benchmark
+	public void stateless(Blackhole bh, EventCounters counters) {
+		queryOrdersStateless( bh, counters );
+	}
+
 	protected void queryOrders(Blackhole bh, EventCounters counters) {
 		final var query = em.createQuery( ORDER_QUERY, Order.class );
 		if ( IS_ORM_5 ) {
@@ -93,6 +122,22 @@ public class QueryOneToManyFetch {
 		}
 	}
 
+	protected void queryOrdersStateless(Blackhole bh, EventCounters counters) {
+		final var query = statelessSession.createQuery( ORDER_QUERY, Order.class );
+		if ( IS_ORM_5 ) {
+			query.setHint( "hibernate.query.passDistinctThrough", false );
+		}
+		final List<Order> orders = query.getResultList();
+		for ( Order order : orders ) {
+			if ( bh != null ) {
+				bh.consume( order );
+			}
+			if ( counters != null ) {
+				counters.orderLines += order.lines.size();
+			}
+		}
+	}
+
 	public void populateData(EntityManager entityManager, int i, int lines) {
 		final Order order = new Order();
 		order.id = (long) i;
@@ -132,10 +177,12 @@ public class QueryOneToManyFetch {
 	public static void main(String[] args) {
 		QueryOneToManyFetch jpaBenchmark = new QueryOneToManyFetch();
 		jpaBenchmark.orderLines = 50;
+		jpaBenchmark.jdbc = ReplayConnectionProvider.REPLAY;
 		jpaBenchmark.setup();
 
 		for ( int i = 0; i < 5; i++ ) {
 			jpaBenchmark.single(null, null);
+			jpaBenchmark.stateless(null, null);
 		}
 
 		jpaBenchmark.destroy();
@@ -3,6 +3,8 @@ package org.hibernate.benchmark.queryl1hit;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.benchmark.util.ReplayConnectionProvider;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -19,6 +21,9 @@ import jakarta.persistence.OneToOne;
 import jakarta.persistence.Persistence;
 import jakarta.persistence.Table;
 import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -26,14 +31,18 @@ import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
 
 @State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
 public class QueryEntityLazyInitCollectionBase {
 
 	protected EntityManagerFactory entityManagerFactory;
 	protected EntityManager em;
 
+	@Param({ReplayConnectionProvider.DATABASE, ReplayConnectionProvider.REPLAY})
+	public String jdbc;
+
 	@Setup
 	public void setup() {
-		entityManagerFactory = Persistence.createEntityManagerFactory("bench1");
+		entityManagerFactory = Persistence.createEntityManagerFactory( "bench1", ReplayConnectionProvider.settings( jdbc ) );
 
 		em = entityManagerFactory.createEntityManager();
 		em.getTransaction().begin();
@@ -52,6 +61,7 @@ public class QueryEntityLazyInitCollectionBase {
 	@TearDown
 	public void destroy() {
 		em.close();
+		ReplayConnectionProvider.reset();
 		entityManagerFactory.close();
 	}
 
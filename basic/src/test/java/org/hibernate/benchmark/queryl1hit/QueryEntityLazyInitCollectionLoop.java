@@ -1,5 +1,7 @@
 package org.hibernate.benchmark.queryl1hit;
 
+import org.hibernate.benchmark.util.ReplayConnectionProvider;
+
 import jakarta.persistence.FlushModeType;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
@@ -24,6 +26,9 @@ public class QueryEntityLazyInitCollectionLoop extends QueryEntityLazyInitCollec
 		em.setFlushMode( FlushModeType.COMMIT );
 		em.getTransaction().begin();
 		queryAuthors( null, null );
+		if ( ReplayConnectionProvider.REPLAY.equals( jdbc ) ) {
+			ReplayConnectionProvider.replay();
+		}
 	}
 
 	@Override
@@ -45,6 +50,7 @@ public class QueryEntityLazyInitCollectionLoop extends QueryEntityLazyInitCollec
 
 	public static void main(String[] args) {
 		QueryEntityLazyInitCollectionLoop jpaBenchmark = new QueryEntityLazyInitCollectionLoop();
+		jpaBenchmark.jdbc = ReplayConnectionProvider.REPLAY;
 		jpaBenchmark.setup();
 
 		for ( int i = 0; i < 5; i++ ) {
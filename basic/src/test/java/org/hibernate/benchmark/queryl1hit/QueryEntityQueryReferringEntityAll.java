@@ -1,5 +1,7 @@
 package org.hibernate.benchmark.queryl1hit;
 
+import org.hibernate.benchmark.util.ReplayConnectionProvider;
+
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
@@ -21,6 +23,14 @@ public class QueryEntityQueryReferringEntityAll extends QueryEntityQueryReferrin
 	public void setup() {
 		super.setup();
 		em.getTransaction().begin();
+		if ( ReplayConnectionProvider.REPLAY.equals( jdbc ) ) {
+			// also records the queries of noQueryAccess
+			queryEmployees( true, null, null );
+			queryEmployeesInList( null );
+			queryEmployeesJoinAccesses( null );
+			findEmployeesByMultipleIds( null );
+			ReplayConnectionProvider.replay();
+		}
 	}
 
 	@Override
@@ -39,12 +49,40 @@ public class QueryEntityQueryReferringEntityAll extends QueryEntityQueryReferrin
 		queryEmployees( false, bh, counters );
 	}
 
+	/**
+	 * Queries the accesses of all the employees at once, binding the employees to an IN list
+	 */
+	@Benchmark
+	public void inListQueryAccess(Blackhole bh) {
+		queryEmployeesInList( bh );
+	}
+
+	/**
+	 * Queries the employees and their accesses together, with an entity join
+	 */
+	@Benchmark
+	public void joinQueryAccess(Blackhole bh) {
+		queryEmployeesJoinAccesses( bh );
+	}
+
+	/**
+	 * Loads the employees by id in batches, then queries their accesses with an IN list
+	 */
+	@Benchmark
+	public void multipleIdsQueryAccess(Blackhole bh) {
+		findEmployeesByMultipleIds( bh );
+	}
+
 	public static void main(String[] args) {
 		QueryEntityQueryReferringEntityAll jpaBenchmark = new QueryEntityQueryReferringEntityAll();
+		jpaBenchmark.jdbc = ReplayConnectionProvider.REPLAY;
 		jpaBenchmark.setup();
 
 		for ( int i = 0; i < 10; i++ ) {
 			jpaBenchmark.includeQueryAccess(null, null);
+			jpaBenchmark.inListQueryAccess(null);
+			jpaBenchmark.joinQueryAccess(null);
+			jpaBenchmark.multipleIdsQueryAccess(null);
 		}
 
 		jpaBenchmark.destroy();
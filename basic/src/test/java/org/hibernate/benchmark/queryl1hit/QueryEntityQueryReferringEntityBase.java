@@ -1,9 +1,17 @@
 package org.hibernate.benchmark.queryl1hit;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.LongStream;
 
+import org.hibernate.Session;
+import org.hibernate.benchmark.util.ReplayConnectionProvider;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityManager;
@@ -18,6 +26,9 @@ import jakarta.persistence.Table;
 import jakarta.persistence.TypedQuery;
 
 import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -25,16 +36,21 @@ import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
 
 @State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
 public class QueryEntityQueryReferringEntityBase {
 
 	static final int NUMBER_OF_ENTITIES = 1000;
 
 	protected EntityManagerFactory entityManagerFactory;
 	protected EntityManager em;
+	protected List<Long> employeeIds;
+
+	@Param({ReplayConnectionProvider.DATABASE, ReplayConnectionProvider.REPLAY})
+	public String jdbc;
 
 	@Setup
 	public void setup() {
-		entityManagerFactory = Persistence.createEntityManagerFactory( "bench2" );
+		entityManagerFactory = Persistence.createEntityManagerFactory( "bench2", ReplayConnectionProvider.settings( jdbc ) );
 
 		em = entityManagerFactory.createEntityManager();
 		em.getTransaction().begin();
@@ -44,6 +60,7 @@ public class QueryEntityQueryReferringEntityBase {
 		for ( int i = 0; i < 1; i++ ) {
 			populateData( em );
 		}
+		employeeIds = em.createQuery( "select e.employeeId from Employee e", Long.class ).getResultList();
 		em.getTransaction().commit();
 		em.close();
 
@@ -53,6 +70,7 @@ public class QueryEntityQueryReferringEntityBase {
 	@TearDown
 	public void destroy() {
 		em.close();
+		ReplayConnectionProvider.reset();
 		entityManagerFactory.close();
 	}
 
@@ -88,6 +106,61 @@ public class QueryEntityQueryReferringEntityBase {
 		}
 	}
 
+	/**
+	 * Same data as {@link #queryEmployees} with the access query, with a single IN list query for all the employees
+	 */
+	public void queryEmployeesInList(Blackhole bh) {
+		List<Employee> employeeList = em.createQuery( "select e From Employee e", Employee.class ).getResultList();
+		consumeAccesses( employeeList, queryAccesses( employeeList ), bh );
+	}
+
+	/**
+	 * Same data as {@link #queryEmployees} with the access query, with a single query left joining the accesses
+	 * to the employees, i.e. returning an employee once per access, or once without access
+	 */
+	public void queryEmployeesJoinAccesses(Blackhole bh) {
+		List<Object[]> rows = em.createQuery(
+				"select e, pa From Employee e left join ProjectAccess pa on pa.employee = e",
+				Object[].class
+		).getResultList();
+		Set<Employee> employees = new LinkedHashSet<>();
+		List<ProjectAccess> accessList = new ArrayList<>( rows.size() );
+		for ( Object[] row : rows ) {
+			employees.add( (Employee) row[0] );
+			if ( row[1] != null ) {
+				accessList.add( (ProjectAccess) row[1] );
+			}
+		}
+		consumeAccesses( new ArrayList<>( employees ), accessList, bh );
+	}
+
+	/**
+	 * Same data as {@link #queryEmployees} with the access query, for employees known by id
+	 */
+	public void findEmployeesByMultipleIds(Blackhole bh) {
+		List<Employee> employeeList = em.unwrap( Session.class ).byMultipleIds( Employee.class ).multiLoad( employeeIds );
+		consumeAccesses( employeeList, queryAccesses( employeeList ), bh );
+	}
+
+	private List<ProjectAccess> queryAccesses(List<Employee> employeeList) {
+		return em.createQuery( "select pa From ProjectAccess pa where pa.employee in :employees", ProjectAccess.class )
+				.setParameter( "employees", employeeList )
+				.getResultList();
+	}
+
+	private static void consumeAccesses(List<Employee> employeeList, List<ProjectAccess> accessList, Blackhole bh) {
+		Map<Employee, List<ProjectAccess>> accessesByEmployee = new HashMap<>();
+		for ( ProjectAccess access : accessList ) {
+			accessesByEmployee.computeIfAbsent( access.getEmployee(), e -> new ArrayList<>() ).add( access );
+		}
+		for ( Employee employee : employeeList ) {
+			if ( bh != null ) {
+				bh.consume( employee );
+				bh.consume( accessesByEmployee.get( employee ) );
+			}
+		}
+	}
+
 	public void populateData(EntityManager entityManager) {
 		LongStream.range( 1, NUMBER_OF_ENTITIES ).forEach( id -> {
 			Employee employee = new Employee();
@@ -18,8 +18,10 @@ import jakarta.persistence.OneToOne;
 import jakarta.persistence.Persistence;
 import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
@@ -29,6 +31,7 @@ import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
 @State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
 @Fork(2)
 @Warmup(iterations = 3, time = 3)
 @Measurement(iterations = 3, time = 5)
@@ -93,7 +96,7 @@ public class QueryCacheEntityWithAssociation {
 		em.close();
 	}
 
-	public void populateData(EntityManager entityManager, int i, int books) {
+	public static void populateData(EntityManager entityManager, int i, int books) {
 		final Author author = new Author();
 		author.authorId = (long) i;
 		author.name = "David Gourley";
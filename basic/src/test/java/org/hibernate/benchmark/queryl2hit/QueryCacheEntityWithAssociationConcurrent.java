@@ -0,0 +1,151 @@
+package org.hibernate.benchmark.queryl2hit;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.benchmark.queryl2hit.QueryCacheEntityWithAssociation.Author;
+import org.hibernate.benchmark.queryl2hit.QueryCacheEntityWithAssociation.Book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Same workload as {@link QueryCacheEntityWithAssociation}, but all the benchmark threads share a single
+ * EntityManagerFactory, hence the same query cache, entity cache and {@code UpdateTimestampsCache} regions.
+ * <p>
+ * Each benchmark method runs with a different number of threads: JMH reports the throughput of all the
+ * threads together, use {@link org.hibernate.benchmark.util.ThreadScalingReport} to get the ops/s per thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@Fork(2)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class QueryCacheEntityWithAssociationConcurrent {
+
+	private static final int BOOKS = 5;
+
+	// every thread holds a connection for the whole transaction
+	private static final int POOL_SIZE = Math.max( 16, Runtime.getRuntime().availableProcessors() );
+
+	protected EntityManagerFactory entityManagerFactory;
+
+	@Param({"SHALLOW", "FULL"})
+	public String cacheLayout;
+
+	@Setup
+	public void setup() {
+		Map<String, Object> settings = Map.of(
+				"hibernate.cache.query_cache_layout", cacheLayout,
+				"hibernate.connection.pool_size", POOL_SIZE
+		);
+		entityManagerFactory = Persistence.createEntityManagerFactory( "QueryCacheEntityWithAssociation", settings );
+
+		final EntityManager em = entityManagerFactory.createEntityManager();
+		em.getTransaction().begin();
+		em.createQuery("delete Book").executeUpdate();
+		em.createQuery("delete Author ").executeUpdate();
+		em.createQuery("delete AuthorDetails ").executeUpdate();
+		for (int i = 0; i < 1000; i++) {
+			QueryCacheEntityWithAssociation.populateData( em, i, BOOKS );
+		}
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@TearDown
+	public void destroy() {
+		entityManagerFactory.close();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class EventCounters {
+		public long books;
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void threads1(Blackhole bh, EventCounters counters) {
+		queryBooks( bh, counters );
+	}
+
+	@Benchmark
+	@Threads(2)
+	public void threads2(Blackhole bh, EventCounters counters) {
+		queryBooks( bh, counters );
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void threads4(Blackhole bh, EventCounters counters) {
+		queryBooks( bh, counters );
+	}
+
+	@Benchmark
+	@Threads(8)
+	public void threads8(Blackhole bh, EventCounters counters) {
+		queryBooks( bh, counters );
+	}
+
+	@Benchmark
+	@Threads(16)
+	public void threads16(Blackhole bh, EventCounters counters) {
+		queryBooks( bh, counters );
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public void threadsMax(Blackhole bh, EventCounters counters) {
+		queryBooks( bh, counters );
+	}
+
+	protected void queryBooks(Blackhole bh, EventCounters counters) {
+		final EntityManager em = entityManagerFactory.createEntityManager();
+		em.getTransaction().begin();
+		final Author author = em.createQuery( "from Author", Author.class ).setMaxResults( 1 ).getSingleResult();
+		for (int i = 0; i < 1000; i++) {
+			final List<Book> books = em.createQuery( "from Book b where b.author = :author", Book.class )
+					.setParameter( "author", author )
+					.setHint( "org.hibernate.cacheable", "true" )
+					.getResultList();
+			for ( Book book : books ) {
+				if ( bh != null ) {
+					bh.consume( book );
+				}
+			}
+			if ( counters != null ) {
+				counters.books += books.size();
+			}
+		}
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	public static void main(String[] args) {
+		QueryCacheEntityWithAssociationConcurrent jpaBenchmark = new QueryCacheEntityWithAssociationConcurrent();
+		jpaBenchmark.cacheLayout = "FULL";
+		jpaBenchmark.setup();
+
+		for ( int i = 0; i < 5; i++ ) {
+			jpaBenchmark.threads1(null, null);
+		}
+
+		jpaBenchmark.destroy();
+	}
+}
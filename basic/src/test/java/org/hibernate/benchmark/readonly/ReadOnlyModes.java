@@ -0,0 +1,189 @@
+package org.hibernate.benchmark.readonly;
+
+import java.util.List;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.benchmark.flush.AutoFlush2;
+import org.hibernate.benchmark.flush.AutoFlush2.Author;
+import org.hibernate.benchmark.immutable.QueryImmutableEntity;
+import org.hibernate.benchmark.immutable.QueryImmutableEntity.Fortune;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.Table;
+import jakarta.persistence.TypedQuery;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reads entities in a transaction that doesn't modify them, with the different ways of telling Hibernate so:
+ * <ul>
+ *     <li>{@code DEFAULT}: nothing, the entities are snapshotted and dirty checked on flush</li>
+ *     <li>{@code SESSION_READ_ONLY}: {@link Session#setDefaultReadOnly(boolean)}</li>
+ *     <li>{@code QUERY_HINT}: the {@code org.hibernate.readOnly} query hint, which doesn't apply to the lazily loaded associations</li>
+ *     <li>{@code NO_FLUSH}: {@link FlushMode#MANUAL}, the entities are still snapshotted but never dirty checked</li>
+ * </ul>
+ * on the {@code @Immutable} {@link Fortune} of {@link QueryImmutableEntity}, a mutable copy of it,
+ * and the {@link Author}s and books of {@link AutoFlush2}.
+ * Run it with {@code -prof gc} to compare the memory allocated for the loaded state snapshots.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class ReadOnlyModes {
+
+	private static final String READ_ONLY_HINT = "org.hibernate.readOnly";
+
+	protected EntityManagerFactory entityManagerFactory;
+
+	@Param({"IMMUTABLE_FORTUNE", "FORTUNE", "AUTHOR"})
+	public String model;
+
+	@Param({"DEFAULT", "SESSION_READ_ONLY", "QUERY_HINT", "NO_FLUSH"})
+	public String mode;
+
+	@Param({"1000"})
+	public int rows;
+
+	@Setup
+	public void setup() {
+		entityManagerFactory = Persistence.createEntityManagerFactory( "ReadOnlyModes" );
+
+		final EntityManager em = entityManagerFactory.createEntityManager();
+		em.getTransaction().begin();
+		em.createQuery( "delete Fortune" ).executeUpdate();
+		em.createQuery( "delete MutableFortune" ).executeUpdate();
+		em.createQuery( "delete Book" ).executeUpdate();
+		em.createQuery( "delete Author" ).executeUpdate();
+		em.createQuery( "delete AuthorDetails" ).executeUpdate();
+		final AutoFlush2 autoFlush2 = new AutoFlush2();
+		for ( int i = 0; i < rows; i++ ) {
+			new QueryImmutableEntity().populateData( em, i );
+			populateData( em, i );
+			// 5 books per author
+			if ( i % 5 == 0 ) {
+				autoFlush2.populateData( em, i / 5 );
+			}
+		}
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@TearDown
+	public void destroy() {
+		entityManagerFactory.close();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class EventCounters {
+		public long objects;
+	}
+
+	@Benchmark
+	public void read(Blackhole bh, EventCounters counters) {
+		final EntityManager em = entityManagerFactory.createEntityManager();
+		try {
+			final Session session = em.unwrap( Session.class );
+			switch ( mode ) {
+				case "DEFAULT", "QUERY_HINT" -> {
+				}
+				case "SESSION_READ_ONLY" -> session.setDefaultReadOnly( true );
+				case "NO_FLUSH" -> session.setHibernateFlushMode( FlushMode.MANUAL );
+				default -> throw new IllegalArgumentException( "Unknown mode: " + mode );
+			}
+			em.getTransaction().begin();
+			final long objects = switch ( model ) {
+				case "IMMUTABLE_FORTUNE" -> consume( bh, query( em, "from Fortune", Fortune.class ) );
+				case "FORTUNE" -> consume( bh, query( em, "from MutableFortune", MutableFortune.class ) );
+				case "AUTHOR" -> consumeAuthors( bh, query( em, "from Author", Author.class ) );
+				default -> throw new IllegalArgumentException( "Unknown model: " + model );
+			};
+			// flushes, and dirty checks, whatever isn't read-only
+			em.getTransaction().commit();
+			if ( counters != null ) {
+				counters.objects += objects;
+			}
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	private <T> List<T> query(EntityManager em, String hql, Class<T> resultClass) {
+		final TypedQuery<T> query = em.createQuery( hql, resultClass );
+		if ( "QUERY_HINT".equals( mode ) ) {
+			query.setHint( READ_ONLY_HINT, true );
+		}
+		return query.getResultList();
+	}
+
+	private static long consume(Blackhole bh, List<?> entities) {
+		if ( bh != null ) {
+			for ( Object entity : entities ) {
+				bh.consume( entity );
+			}
+		}
+		return entities.size();
+	}
+
+	private static long consumeAuthors(Blackhole bh, List<Author> authors) {
+		long objects = authors.size();
+		for ( Author author : authors ) {
+			// initializes the books, outside the scope of the query hint
+			objects += consume( bh, author.books );
+		}
+		return objects;
+	}
+
+	public void populateData(EntityManager entityManager, int i) {
+		final MutableFortune fortune = new MutableFortune();
+		fortune.id = (long) i;
+		fortune.name = "HTTP Definitive guide";
+		entityManager.persist( fortune );
+	}
+
+	@Entity(name = "MutableFortune")
+	@Table(name = "MutableFortune")
+	public static class MutableFortune {
+		@Id
+		public Long id;
+
+		@Column
+		public String name;
+	}
+
+	public static void main(String[] args) {
+		ReadOnlyModes jpaBenchmark = new ReadOnlyModes();
+		jpaBenchmark.rows = 1000;
+		jpaBenchmark.setup();
+
+		for ( String model : List.of( "IMMUTABLE_FORTUNE", "FORTUNE", "AUTHOR" ) ) {
+			jpaBenchmark.model = model;
+			for ( String mode : List.of( "DEFAULT", "SESSION_READ_ONLY", "QUERY_HINT", "NO_FLUSH" ) ) {
+				jpaBenchmark.mode = mode;
+				for ( int i = 0; i < 5; i++ ) {
+					jpaBenchmark.read( null, null );
+				}
+			}
+		}
+
+		jpaBenchmark.destroy();
+	}
+}
@@ -0,0 +1,195 @@
+package org.hibernate.benchmark.streaming;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.benchmark.flush.AutoFlush.Foo;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reads the whole {@link org.hibernate.benchmark.flush.AutoFlush} {@code Foo} table, the way batch exports do:
+ * <ul>
+ *     <li>{@code LIST}: {@code getResultList()}, all the entities are managed at the same time</li>
+ *     <li>{@code STREAM}: {@code getResultStream()}, optionally clearing the session every {@link #clearInterval} rows</li>
+ *     <li>{@code SCROLL}: {@code ScrollableResults} with {@link ScrollMode#FORWARD_ONLY}, optionally clearing the session</li>
+ *     <li>{@code STATELESS}: {@code ScrollableResults} with {@link ScrollMode#FORWARD_ONLY} on a {@link StatelessSession}</li>
+ * </ul>
+ * Run it with {@code -prof gc -prof org.hibernate.benchmark.util.RetainedHeapProfiler} to compare the allocated
+ * and the retained memory of each mode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class StreamingRead {
+
+	private static final int ROWS = 50000;
+
+	protected EntityManagerFactory entityManagerFactory;
+	protected SessionFactory sessionFactory;
+
+	@Param({"LIST", "STREAM", "STREAM_CLEAR", "SCROLL", "SCROLL_CLEAR", "STATELESS"})
+	public String mode;
+
+	@Param({"100", "10000"})
+	public int fetchSize;
+
+	@Param({"1000"})
+	public int clearInterval;
+
+	@Setup
+	public void setup() {
+		entityManagerFactory = Persistence.createEntityManagerFactory( "AutoFlush" );
+		sessionFactory = entityManagerFactory.unwrap( SessionFactory.class );
+
+		sessionFactory.inTransaction( session -> {
+			session.createMutationQuery( "delete Foo" ).executeUpdate();
+			for ( int i = 0; i < ROWS; i++ ) {
+				final Foo foo = new Foo();
+				foo.setId( i );
+				session.persist( foo );
+				if ( i % 1000 == 0 ) {
+					session.flush();
+					session.clear();
+				}
+			}
+		} );
+	}
+
+	@TearDown
+	public void destroy() {
+		entityManagerFactory.close();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class EventCounters {
+		public long objects;
+	}
+
+	@Benchmark
+	public void read(Blackhole bh, EventCounters counters) {
+		final long objects = switch ( mode ) {
+			case "LIST" -> list( bh );
+			case "STREAM" -> stream( bh, false );
+			case "STREAM_CLEAR" -> stream( bh, true );
+			case "SCROLL" -> scroll( bh, false );
+			case "SCROLL_CLEAR" -> scroll( bh, true );
+			case "STATELESS" -> stateless( bh );
+			default -> throw new IllegalArgumentException( "Unknown mode: " + mode );
+		};
+		if ( counters != null ) {
+			counters.objects += objects;
+		}
+	}
+
+	protected long list(Blackhole bh) {
+		try (Session session = sessionFactory.openSession()) {
+			session.beginTransaction();
+			final List<Foo> foos = session.createSelectionQuery( "from Foo", Foo.class )
+					.setFetchSize( fetchSize )
+					.getResultList();
+			for ( Foo foo : foos ) {
+				consume( bh, foo );
+			}
+			session.getTransaction().commit();
+			return foos.size();
+		}
+	}
+
+	protected long stream(Blackhole bh, boolean clear) {
+		try (Session session = sessionFactory.openSession()) {
+			session.beginTransaction();
+			long objects = 0;
+			try (Stream<Foo> foos = session.createSelectionQuery( "from Foo", Foo.class )
+					.setFetchSize( fetchSize )
+					.getResultStream()) {
+				for ( Foo foo : (Iterable<Foo>) foos::iterator ) {
+					consume( bh, foo );
+					if ( ++objects % clearInterval == 0 && clear ) {
+						session.clear();
+					}
+				}
+			}
+			session.getTransaction().commit();
+			return objects;
+		}
+	}
+
+	protected long scroll(Blackhole bh, boolean clear) {
+		try (Session session = sessionFactory.openSession()) {
+			session.beginTransaction();
+			long objects = 0;
+			try (ScrollableResults<Foo> foos = session.createSelectionQuery( "from Foo", Foo.class )
+					.setFetchSize( fetchSize )
+					.scroll( ScrollMode.FORWARD_ONLY )) {
+				while ( foos.next() ) {
+					consume( bh, foos.get() );
+					if ( ++objects % clearInterval == 0 && clear ) {
+						session.clear();
+					}
+				}
+			}
+			session.getTransaction().commit();
+			return objects;
+		}
+	}
+
+	protected long stateless(Blackhole bh) {
+		try (StatelessSession session = sessionFactory.openStatelessSession()) {
+			session.beginTransaction();
+			long objects = 0;
+			try (ScrollableResults<Foo> foos = session.createSelectionQuery( "from Foo", Foo.class )
+					.setFetchSize( fetchSize )
+					.scroll( ScrollMode.FORWARD_ONLY )) {
+				while ( foos.next() ) {
+					consume( bh, foos.get() );
+					objects++;
+				}
+			}
+			session.getTransaction().commit();
+			return objects;
+		}
+	}
+
+	private static void consume(Blackhole bh, Foo foo) {
+		if ( bh != null ) {
+			bh.consume( foo );
+		}
+	}
+
+	public static void main(String[] args) {
+		StreamingRead jpaBenchmark = new StreamingRead();
+		jpaBenchmark.fetchSize = 100;
+		jpaBenchmark.clearInterval = 1000;
+		jpaBenchmark.setup();
+
+		for ( String mode : List.of( "LIST", "STREAM", "STREAM_CLEAR", "SCROLL", "SCROLL_CLEAR", "STATELESS" ) ) {
+			jpaBenchmark.mode = mode;
+			for ( int i = 0; i < 5; i++ ) {
+				jpaBenchmark.read( null, null );
+			}
+		}
+
+		jpaBenchmark.destroy();
+	}
+}
@@ -0,0 +1,222 @@
+package org.hibernate.benchmark.synthetic;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.benchmark.util.SyntheticModel;
+import org.hibernate.cfg.AvailableSettings;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Runs a hot path of the ORM for {@link #types} generated entity types before the measurement, so that the type
+ * profiles of its call sites are polluted the way they are by a large domain model, then only measures it for the
+ * first of these types:
+ * <ul>
+ *     <li>{@code DIRTY_CHECKING}: flushes a session managing {@link #rows} unmodified entities</li>
+ *     <li>{@code JDBC_EXTRACTION}: queries {@link #rows} entities with a stateless session, i.e. reads the values of
+ *     each {@code JdbcType} without a persistence context</li>
+ *     <li>{@code ENTITY_KEY}: finds the {@link #rows} managed entities by id, i.e. hashes and compares {@code EntityKey}s</li>
+ *     <li>{@code CASCADE}: persists {@link #rows} new entities, whose associations cascade {@code PERSIST}</li>
+ * </ul>
+ * All the types have the same shape, {@link #attributes} basic attributes and {@link #associations} associations,
+ * and the measured type only refers to a root entity which is not part of the profiled types. The attributes of a type
+ * all have the same basic type, a different one for each type, so that the profiled types also pollute the
+ * {@code JdbcType} call sites, up to the dozen of basic types {@link SyntheticModel} varies.
+ * Compare the throughput for an increasing number of types.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class Megamorphism {
+
+	private static final int POLLUTION_ENTITIES = 200_000;
+
+	@Param({"1", "2", "4", "8", "16", "32"})
+	public int types;
+
+	@Param({"DIRTY_CHECKING", "JDBC_EXTRACTION", "ENTITY_KEY", "CASCADE"})
+	public String path;
+
+	@Param({"100"})
+	public int rows;
+
+	@Param({"10"})
+	public int attributes;
+
+	@Param({"2"})
+	public int associations;
+
+	protected SyntheticModel model;
+	protected SessionFactory sessionFactory;
+	protected List<Class<?>> profiledTypes;
+	protected Session[] sessions;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException {
+		// the first entity has no association, so it is not profiled
+		model = new SyntheticModel( new SyntheticModel.Config( types + 1, attributes, associations, 1, 0, true, true ) );
+		sessionFactory = SyntheticModelBootstrap.buildSessionFactory(
+				model,
+				Map.of(
+						AvailableSettings.HBM2DDL_AUTO, "create-drop",
+						// a connection per session, plus the ones of the other paths
+						AvailableSettings.POOL_SIZE, String.valueOf( types + 2 )
+				)
+		);
+		profiledTypes = model.entityClasses().subList( 1, types + 1 );
+		populateData();
+
+		sessions = new Session[types];
+		for ( int type = 0; type < types; type++ ) {
+			sessions[type] = sessionFactory.openSession();
+			sessions[type].beginTransaction();
+			sessions[type].createSelectionQuery( "from " + entityName( type ), Object.class ).getResultList();
+		}
+
+		for ( int type = types - 1; type >= 0; type-- ) {
+			for ( int i = 0; i < POLLUTION_ENTITIES / ( rows * types ); i++ ) {
+				run( type, null );
+			}
+		}
+	}
+
+	@TearDown
+	public void destroy() {
+		for ( Session session : sessions ) {
+			session.getTransaction().rollback();
+			session.close();
+		}
+		sessionFactory.close();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class EventCounters {
+		public long entities;
+	}
+
+	@Benchmark
+	public void hotPath(Blackhole bh, EventCounters counters) throws ReflectiveOperationException {
+		run( 0, bh );
+		if ( counters != null ) {
+			counters.entities += rows;
+		}
+	}
+
+	protected void run(int type, Blackhole bh) throws ReflectiveOperationException {
+		switch ( path ) {
+			case "DIRTY_CHECKING" -> sessions[type].flush();
+			case "JDBC_EXTRACTION" -> {
+				try (StatelessSession session = sessionFactory.openStatelessSession()) {
+					final List<Object> entities = session.createSelectionQuery( "from " + entityName( type ), Object.class )
+							.getResultList();
+					consume( bh, entities );
+				}
+			}
+			case "ENTITY_KEY" -> {
+				final Class<?> entityClass = profiledTypes.get( type );
+				for ( long id = 0; id < rows; id++ ) {
+					consume( bh, sessions[type].find( entityClass, id ) );
+				}
+			}
+			case "CASCADE" -> {
+				try (Session session = sessionFactory.openSession()) {
+					// the cascade skips uninitialized proxies, so the associated entities are transient instances,
+					// shared by the entities of the same id
+					final Map<List<Object>, Object> associated = new HashMap<>();
+					for ( long id = 0; id < rows; id++ ) {
+						session.persist( newInstance(
+								profiledTypes.get( type ),
+								id,
+								(associationType, associationId) -> associated.computeIfAbsent(
+										List.of( associationType, associationId ),
+										key -> newUnassociatedInstance( associationType, (long) associationId )
+								)
+						) );
+					}
+					// nothing is inserted, the assigned ids are only used for the persistence context
+					session.clear();
+				}
+			}
+			default -> throw new IllegalArgumentException( "Unknown path: " + path );
+		}
+	}
+
+	private String entityName(int type) {
+		return profiledTypes.get( type ).getSimpleName();
+	}
+
+	private void populateData() throws ReflectiveOperationException {
+		try (Session session = sessionFactory.openSession()) {
+			session.beginTransaction();
+			// in generation order, so that the associated entities are already persisted
+			for ( Class<?> entityClass : model.entityClasses() ) {
+				for ( long id = 0; id < rows; id++ ) {
+					session.persist( newInstance( entityClass, id, session::find ) );
+				}
+			}
+			session.getTransaction().commit();
+		}
+	}
+
+	/**
+	 * A new entity, associated to the entities of the same id
+	 */
+	private static Object newInstance(Class<?> entityClass, long id, BiFunction<Class<?>, Object, Object> associated)
+			throws ReflectiveOperationException {
+		final Object entity = entityClass.getConstructor().newInstance();
+		for ( Field field : entityClass.getDeclaredFields() ) {
+			final Object basicValue = SyntheticModel.basicValue( field.getType(), id );
+			final Object value = basicValue != null ? basicValue : associated.apply( field.getType(), id );
+			field.set( entity, value );
+		}
+		return entity;
+	}
+
+	private static Object newUnassociatedInstance(Class<?> entityClass, long id) {
+		try {
+			return newInstance( entityClass, id, (type, associatedId) -> null );
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalStateException( e );
+		}
+	}
+
+	private static void consume(Blackhole bh, Object object) {
+		if ( bh != null ) {
+			bh.consume( object );
+		}
+	}
+
+	public static void main(String[] args) throws ReflectiveOperationException {
+		for ( String path : List.of( "DIRTY_CHECKING", "JDBC_EXTRACTION", "ENTITY_KEY", "CASCADE" ) ) {
+			final Megamorphism benchmark = new Megamorphism();
+			benchmark.types = 4;
+			benchmark.path = path;
+			benchmark.rows = 100;
+			benchmark.attributes = 10;
+			benchmark.associations = 2;
+			benchmark.setup();
+			for ( int i = 0; i < 100; i++ ) {
+				benchmark.hotPath( null, null );
+			}
+			benchmark.destroy();
+		}
+	}
+}
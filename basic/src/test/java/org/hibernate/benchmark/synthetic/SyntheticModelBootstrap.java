@@ -0,0 +1,164 @@
+package org.hibernate.benchmark.synthetic;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.benchmark.util.SyntheticModel;
+import org.hibernate.boot.registry.BootstrapServiceRegistryBuilder;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Builds a SessionFactory over a {@link SyntheticModel} of {@link #entities} entities, generated again before
+ * each iteration so that nothing Hibernate caches per entity class is reused.
+ * <p>
+ * Besides the build time of {@link #build}, the {@code retainedBytes} and {@code loadedClasses} counters of
+ * {@link #footprint} are the heap retained by the SessionFactory after a garbage collection and the number of classes
+ * loaded while building it (including the ones generated by Hibernate), to be divided by its {@code factories} counter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SyntheticModelBootstrap {
+
+	private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+	private static final ClassLoadingMXBean CLASS_LOADING = ManagementFactory.getClassLoadingMXBean();
+
+	@Param({"50", "200", "1000", "2000"})
+	public int entities;
+
+	@Param({"10"})
+	public int attributes;
+
+	@Param({"2"})
+	public int associations;
+
+	@Param({"1"})
+	public int inheritanceDepth;
+
+	@Param({"1"})
+	public int embeddables;
+
+	protected SyntheticModel model;
+	protected SessionFactory sessionFactory;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		model = new SyntheticModel( new SyntheticModel.Config( entities, attributes, associations, inheritanceDepth, embeddables ) );
+	}
+
+	@TearDown(Level.Iteration)
+	public void destroy() {
+		if ( sessionFactory != null ) {
+			sessionFactory.close();
+			sessionFactory = null;
+		}
+		model = null;
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class EventCounters {
+		public long factories;
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class FootprintCounters {
+		public long factories;
+		public long retainedBytes;
+		public long loadedClasses;
+	}
+
+	@Benchmark
+	public SessionFactory build(EventCounters counters) {
+		sessionFactory = buildSessionFactory( model );
+		if ( counters != null ) {
+			counters.factories++;
+		}
+		return sessionFactory;
+	}
+
+	/**
+	 * Same build as {@link #build}, between two garbage collections: only its counters are meaningful,
+	 * its time includes the garbage collections
+	 */
+	@Benchmark
+	public SessionFactory footprint(FootprintCounters counters) {
+		final long heapBefore = usedHeapAfterGc();
+		final long classesBefore = CLASS_LOADING.getTotalLoadedClassCount();
+		sessionFactory = buildSessionFactory( model );
+		counters.loadedClasses += CLASS_LOADING.getTotalLoadedClassCount() - classesBefore;
+		counters.retainedBytes += usedHeapAfterGc() - heapBefore;
+		counters.factories++;
+		return sessionFactory;
+	}
+
+	protected static SessionFactory buildSessionFactory(SyntheticModel model) {
+		return buildSessionFactory( model, Map.of() );
+	}
+
+	protected static SessionFactory buildSessionFactory(SyntheticModel model, Map<String, Object> settings) {
+		final Configuration config = new Configuration(
+				new BootstrapServiceRegistryBuilder().applyClassLoader( model.classLoader() ).build()
+		);
+		for ( Class<?> embeddableClass : model.embeddableClasses() ) {
+			config.addAnnotatedClass( embeddableClass );
+		}
+		for ( Class<?> entityClass : model.entityClasses() ) {
+			config.addAnnotatedClass( entityClass );
+		}
+		final StandardServiceRegistryBuilder srb = config.getStandardServiceRegistryBuilder();
+		// the database is the one of hibernate.properties, selected with -Pdb
+		srb.applySetting( AvailableSettings.SHOW_SQL, false )
+				.applySetting( AvailableSettings.LOG_SESSION_METRICS, false )
+				.applySettings( settings );
+		return config.buildSessionFactory( srb.build() );
+	}
+
+	private static long usedHeapAfterGc() {
+		System.gc();
+		System.gc();
+		return MEMORY.getHeapMemoryUsage().getUsed();
+	}
+
+	public static void main(String[] args) {
+		SyntheticModelBootstrap benchmark = new SyntheticModelBootstrap();
+		benchmark.entities = 200;
+		benchmark.attributes = 10;
+		benchmark.associations = 2;
+		benchmark.inheritanceDepth = 3;
+		benchmark.embeddables = 2;
+
+		for ( int i = 0; i < 3; i++ ) {
+			benchmark.setup();
+			final FootprintCounters counters = new FootprintCounters();
+			benchmark.footprint( counters );
+			benchmark.destroy();
+			System.out.printf(
+					"%d entities: %d bytes retained, %d classes loaded%n",
+					benchmark.entities,
+					counters.retainedBytes,
+					counters.loadedClasses
+			);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package org.hibernate.benchmark.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.bytecode.enhance.spi.DefaultEnhancementContext;
+import org.hibernate.bytecode.enhance.spi.Enhancer;
+import org.hibernate.bytecode.enhance.spi.UnloadedField;
+import org.hibernate.bytecode.internal.bytebuddy.BytecodeProviderImpl;
+
+/**
+ * Enhances in place the entities, embeddables and mapped superclasses of a classes directory, like the
+ * {@code org.hibernate.orm} Gradle plugin does for the main source set. It is run on the test classes by
+ * {@code ./gradlew jmhJar -Penhance=true}, so that any benchmark can be compared plain and enhanced:
+ * <pre>
+ * $ java -cp ... org.hibernate.benchmark.util.BuildTimeEnhancer basic/target/classes/java/test
+ * </pre>
+ * The classes which are already enhanced are left untouched, so it can be run again on the same directory.
+ */
+public class BuildTimeEnhancer {
+
+	/**
+	 * The enhancer used at build time and by {@link EnhancingClassLoader}: dirty tracking and lazy initialization,
+	 * but no bidirectional association management, like the defaults of the Gradle plugin
+	 */
+	static Enhancer enhancer(ClassLoader loadingClassLoader) {
+		return new BytecodeProviderImpl().getEnhancer( new DefaultEnhancementContext() {
+			@Override
+			public ClassLoader getLoadingClassLoader() {
+				return loadingClassLoader;
+			}
+
+			@Override
+			public boolean doBiDirectionalAssociationManagement(UnloadedField field) {
+				return false;
+			}
+		} );
+	}
+
+	public static void main(String[] args) throws Exception {
+		if ( args.length != 1 ) {
+			System.err.println( "Usage: BuildTimeEnhancer <classes-directory>" );
+			System.exit( 1 );
+		}
+		final Path classes = Path.of( args[0] );
+		try (URLClassLoader classLoader = new URLClassLoader(
+				new URL[] { classes.toUri().toURL() },
+				BuildTimeEnhancer.class.getClassLoader()
+		)) {
+			final Enhancer enhancer = enhancer( classLoader );
+			int enhanced = 0;
+			for ( Path file : classFiles( classes ) ) {
+				final String name = className( classes, file );
+				final byte[] bytes = enhancer.enhance( name, Files.readAllBytes( file ) );
+				if ( bytes != null ) {
+					Files.write( file, bytes );
+					enhanced++;
+				}
+			}
+			System.out.println( "Enhanced " + enhanced + " classes in " + classes );
+		}
+	}
+
+	private static List<Path> classFiles(Path classes) {
+		try (Stream<Path> files = Files.walk( classes )) {
+			return files.filter( file -> file.toString().endsWith( ".class" ) ).toList();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException( e );
+		}
+	}
+
+	private static String className(Path classes, Path file) {
+		final String path = classes.relativize( file ).toString();
+		return path.substring( 0, path.length() - ".class".length() ).replace( file.getFileSystem().getSeparator(), "." );
+	}
+}
@@ -0,0 +1,152 @@
+package org.hibernate.benchmark.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Environment;
+import org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.configuration.supplier.AgroalDataSourceConfigurationSupplier;
+import io.agroal.api.security.NamePrincipal;
+import io.agroal.api.security.SimplePassword;
+
+/**
+ * The connection pool of a benchmark, for the database of {@code hibernate.properties}:
+ * <ul>
+ *     <li>{@link #BUILT_IN}: Hibernate's {@code DriverManagerConnectionProviderImpl}</li>
+ *     <li>{@link #HIKARI}: a HikariCP {@link DataSource}</li>
+ *     <li>{@link #AGROAL}: an Agroal {@link DataSource}</li>
+ * </ul>
+ * The pools are passed to Hibernate as a {@link ConnectionProvider} instance, rather than through their Hibernate
+ * integration modules, so that they work with every ORM version, and rather than as a {@link DataSource}, which
+ * Hibernate would ask for connections with the credentials of the persistence unit. All the pools open their
+ * {@code size} connections upfront, which are not in auto-commit mode, so Hibernate is told not to check it:
+ * <pre>
+ * try (ConnectionPool pool = new ConnectionPool( ConnectionPool.HIKARI, 5 )) {
+ *     Persistence.createEntityManagerFactory( "...", pool.settings() );
+ * }
+ * </pre>
+ */
+public class ConnectionPool implements AutoCloseable {
+	public static final String BUILT_IN = "BUILT_IN";
+	public static final String HIKARI = "HIKARI";
+	public static final String AGROAL = "AGROAL";
+
+	private final Map<String, Object> settings;
+	private final AutoCloseable dataSource;
+
+	// hibernate.properties is keyed by the legacy connection settings
+	@SuppressWarnings("deprecation")
+	public ConnectionPool(String pool, int size) {
+		final Properties properties = Environment.getProperties();
+		final String driver = properties.getProperty( AvailableSettings.DRIVER );
+		final String url = properties.getProperty( AvailableSettings.URL );
+		final String user = properties.getProperty( AvailableSettings.USER );
+		final String password = properties.getProperty( AvailableSettings.PASS, "" );
+		switch ( pool ) {
+			case BUILT_IN -> {
+				dataSource = null;
+				// created upfront: when growing, the pool fails if another thread takes the connection it just added
+				settings = Map.of(
+						AvailableSettings.POOL_SIZE, String.valueOf( size ),
+						DriverManagerConnectionProviderImpl.INITIAL_SIZE, String.valueOf( size ),
+						DriverManagerConnectionProviderImpl.MIN_SIZE, String.valueOf( size ),
+						AvailableSettings.CONNECTION_PROVIDER_DISABLES_AUTOCOMMIT, "true"
+				);
+			}
+			case HIKARI -> {
+				final HikariConfig config = new HikariConfig();
+				config.setDriverClassName( driver );
+				config.setJdbcUrl( url );
+				config.setUsername( user );
+				config.setPassword( password );
+				config.setMaximumPoolSize( size );
+				config.setMinimumIdle( size );
+				config.setAutoCommit( false );
+				final HikariDataSource hikari = new HikariDataSource( config );
+				dataSource = hikari;
+				settings = dataSourceSettings( hikari );
+			}
+			case AGROAL -> {
+				final AgroalDataSource agroal;
+				try {
+					agroal = AgroalDataSource.from( new AgroalDataSourceConfigurationSupplier()
+							.connectionPoolConfiguration( poolConfig -> poolConfig
+									.initialSize( size )
+									.minSize( size )
+									.maxSize( size )
+									.acquisitionTimeout( Duration.ofSeconds( 30 ) )
+									.connectionFactoryConfiguration( factoryConfig -> factoryConfig
+											.connectionProviderClassName( driver )
+											.jdbcUrl( url )
+											.principal( new NamePrincipal( user ) )
+											.credential( new SimplePassword( password ) )
+											.autoCommit( false ) ) ) );
+				}
+				catch (SQLException e) {
+					throw new IllegalStateException( "Could not create the Agroal pool", e );
+				}
+				dataSource = agroal;
+				settings = dataSourceSettings( agroal );
+			}
+			default -> throw new IllegalArgumentException( "Unknown pool: " + pool );
+		}
+	}
+
+	private static Map<String, Object> dataSourceSettings(DataSource dataSource) {
+		return Map.of(
+				AvailableSettings.CONNECTION_PROVIDER, new DataSourceConnectionProvider( dataSource ),
+				AvailableSettings.CONNECTION_PROVIDER_DISABLES_AUTOCOMMIT, "true"
+		);
+	}
+
+	/**
+	 * The settings to pass to the {@code EntityManagerFactory}
+	 */
+	public Map<String, Object> settings() {
+		return settings;
+	}
+
+	@Override
+	public void close() throws Exception {
+		if ( dataSource != null ) {
+			dataSource.close();
+		}
+	}
+
+	private record DataSourceConnectionProvider(DataSource dataSource) implements ConnectionProvider {
+		@Override
+		public Connection getConnection() throws SQLException {
+			return dataSource.getConnection();
+		}
+
+		@Override
+		public void closeConnection(Connection connection) throws SQLException {
+			connection.close();
+		}
+
+		@Override
+		public boolean supportsAggressiveRelease() {
+			return true;
+		}
+
+		@Override
+		public boolean isUnwrappableAs(Class<?> unwrapType) {
+			return unwrapType.isInstance( this ) || unwrapType.isInstance( dataSource );
+		}
+
+		@Override
+		public <T> T unwrap(Class<T> unwrapType) {
+			return unwrapType.cast( unwrapType.isInstance( this ) ? this : dataSource );
+		}
+	}
+}
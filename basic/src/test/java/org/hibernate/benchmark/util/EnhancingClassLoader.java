@@ -0,0 +1,79 @@
+package org.hibernate.benchmark.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.hibernate.bytecode.enhance.spi.Enhancer;
+
+/**
+ * Child first {@link ClassLoader} defining bytecode enhanced copies of the given classes, so that the same
+ * entities can be benchmarked plain and enhanced in the same JVM, by passing it to the persistence unit:
+ * <pre>
+ * Persistence.createEntityManagerFactory( "...", Map.of( AvailableSettings.CLASSLOADERS, List.of( new EnhancingClassLoader( classNames ) ) ) );
+ * </pre>
+ * The classes are enhanced like at build time, see {@link BuildTimeEnhancer}.
+ * <p>
+ * The nested classes are defined along with their top level class, which the JVM requires to be in the same loader.
+ */
+public class EnhancingClassLoader extends ClassLoader {
+
+	static {
+		registerAsParallelCapable();
+	}
+
+	private final Set<String> topLevelClassNames;
+	private final Enhancer enhancer;
+
+	public EnhancingClassLoader(Collection<String> classNames) {
+		this( classNames, EnhancingClassLoader.class.getClassLoader() );
+	}
+
+	public EnhancingClassLoader(Collection<String> classNames, ClassLoader parent) {
+		super( parent );
+		this.topLevelClassNames = classNames.stream()
+				.map( EnhancingClassLoader::topLevelClassName )
+				.collect( Collectors.toUnmodifiableSet() );
+		this.enhancer = BuildTimeEnhancer.enhancer( parent );
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		if ( !topLevelClassNames.contains( topLevelClassName( name ) ) ) {
+			return super.loadClass( name, resolve );
+		}
+		synchronized ( getClassLoadingLock( name ) ) {
+			Class<?> loaded = findLoadedClass( name );
+			if ( loaded == null ) {
+				final byte[] original = readClass( name );
+				final byte[] enhanced = enhancer.enhance( name, original );
+				final byte[] bytes = enhanced == null ? original : enhanced;
+				loaded = defineClass( name, bytes, 0, bytes.length );
+			}
+			if ( resolve ) {
+				resolveClass( loaded );
+			}
+			return loaded;
+		}
+	}
+
+	private static String topLevelClassName(String name) {
+		final int index = name.indexOf( '$' );
+		return index < 0 ? name : name.substring( 0, index );
+	}
+
+	private byte[] readClass(String name) throws ClassNotFoundException {
+		try (InputStream stream = getParent().getResourceAsStream( name.replace( '.', '/' ) + ".class" )) {
+			if ( stream == null ) {
+				throw new ClassNotFoundException( name );
+			}
+			return stream.readAllBytes();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException( e );
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package org.hibernate.benchmark.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Defaults;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the same benchmarks with several garbage collectors and heap sizes, in the {@code Throughput} and
+ * {@code SampleTime} modes with the {@code gc} profiler, then prints for each of them the throughput, the p99
+ * and the time spent in GC side by side:
+ * <pre>
+ * $ java -cp basic/target/libs/hibernate-orm-benchmark-basic-1.0-SNAPSHOT-jmh.jar org.hibernate.benchmark.util.GcMatrix QueryEntityLazyInitCollectionLoop -gc G1,PARALLEL,ZGC -heap 256m,1g -pcount=100
+ * </pre>
+ * The collectors are {@code G1}, {@code PARALLEL}, {@code ZGC} (generational, JDK 21+) and {@code SHENANDOAH}, all of them
+ * by default, and the heap sizes (both {@code -Xms} and {@code -Xmx}) are {@code 512m} and {@code 2g} by default.
+ * The collectors the forked JVM does not support are skipped. Any other argument is a JMH option.
+ * The GC time and count are the totals of the measurement iterations.
+ */
+public class GcMatrix {
+
+	private static final Map<String, List<String>> COLLECTORS = Map.of(
+			"G1", List.of( "-XX:+UseG1GC" ),
+			"PARALLEL", List.of( "-XX:+UseParallelGC" ),
+			"ZGC", List.of( "-XX:+UseZGC", "-XX:+ZGenerational" ),
+			"SHENANDOAH", List.of( "-XX:+UseShenandoahGC" )
+	);
+
+	private static final String GC_TIME = Defaults.PREFIX + "gc.time";
+	private static final String GC_COUNT = Defaults.PREFIX + "gc.count";
+	private static final String ALLOCATION = Defaults.PREFIX + "gc.alloc.rate.norm";
+
+	public static void main(String[] args) throws Exception {
+		List<String> collectors = List.of( "G1", "PARALLEL", "ZGC", "SHENANDOAH" );
+		List<String> heaps = List.of( "512m", "2g" );
+		final List<String> jmhArgs = new ArrayList<>();
+		for ( int i = 0; i < args.length; i++ ) {
+			if ( "-gc".equals( args[i] ) && i + 1 < args.length ) {
+				collectors = Arrays.asList( args[++i].split( "," ) );
+			}
+			else if ( "-heap".equals( args[i] ) && i + 1 < args.length ) {
+				heaps = Arrays.asList( args[++i].split( "," ) );
+			}
+			else {
+				jmhArgs.add( args[i] );
+			}
+		}
+		final CommandLineOptions options = new CommandLineOptions( jmhArgs.toArray( new String[0] ) );
+		final String jvm = options.getJvm().orElse( Path.of( System.getProperty( "java.home" ), "bin", "java" ).toString() );
+
+		final Map<String, List<Line>> lines = new TreeMap<>();
+		for ( String collector : collectors ) {
+			final List<String> gcArgs = COLLECTORS.get( collector );
+			if ( gcArgs == null ) {
+				throw new IllegalArgumentException( "Unknown collector: " + collector + ", expected one of " + COLLECTORS.keySet() );
+			}
+			if ( !supported( jvm, gcArgs ) ) {
+				System.err.println( "Skipping " + collector + ", not supported by " + jvm );
+				continue;
+			}
+			for ( String heap : heaps ) {
+				final List<String> jvmArgs = new ArrayList<>( options.getJvmArgsAppend().orElse( List.of() ) );
+				jvmArgs.addAll( gcArgs );
+				jvmArgs.add( "-Xms" + heap );
+				jvmArgs.add( "-Xmx" + heap );
+				final Options matrixOptions = new OptionsBuilder()
+						.parent( options )
+						.mode( Mode.Throughput )
+						.mode( Mode.SampleTime )
+						.addProfiler( GCProfiler.class )
+						.jvmArgsAppend( jvmArgs.toArray( new String[0] ) )
+						.build();
+				for ( RunResult result : new Runner( matrixOptions ).run() ) {
+					collect( lines, collector, heap, result );
+				}
+			}
+		}
+
+		System.out.printf(
+				"%-12s %6s %14s %12s %12s %10s %10s %14s%n",
+				"GC", "Heap", "ops/s", "p50 (us)", "p99 (us)", "GC (ms)", "GCs", "B/op"
+		);
+		for ( Map.Entry<String, List<Line>> entry : lines.entrySet() ) {
+			System.out.println();
+			System.out.println( entry.getKey() );
+			for ( Line line : entry.getValue() ) {
+				System.out.printf(
+						"%-12s %6s %14.3f %12.1f %12.1f %10.0f %10.0f %14.1f%n",
+						line.collector, line.heap, line.throughput, line.p50, line.p99, line.gcTime, line.gcCount, line.allocation
+				);
+			}
+		}
+	}
+
+	/**
+	 * Whether the JVM starts with the given collector options
+	 */
+	private static boolean supported(String jvm, List<String> gcArgs) throws IOException, InterruptedException {
+		final List<String> command = new ArrayList<>();
+		command.add( jvm );
+		command.addAll( gcArgs );
+		command.add( "-version" );
+		final Process process = new ProcessBuilder( command ).redirectErrorStream( true ).start();
+		process.getInputStream().transferTo( OutputStream.nullOutputStream() );
+		return process.waitFor() == 0;
+	}
+
+	private static void collect(Map<String, List<Line>> lines, String collector, String heap, RunResult result) {
+		final String benchmark = result.getParams().getBenchmark();
+		final String key = benchmark.substring( benchmark.lastIndexOf( '.', benchmark.lastIndexOf( '.' ) - 1 ) + 1 )
+				+ params( result );
+		final List<Line> benchmarkLines = lines.computeIfAbsent( key, k -> new ArrayList<>() );
+		Line line = null;
+		for ( Line existing : benchmarkLines ) {
+			if ( existing.collector.equals( collector ) && existing.heap.equals( heap ) ) {
+				line = existing;
+			}
+		}
+		if ( line == null ) {
+			line = new Line( collector, heap );
+			benchmarkLines.add( line );
+		}
+		final Result<?> primary = result.getPrimaryResult();
+		final Map<String, Result> secondary = result.getSecondaryResults();
+		if ( result.getParams().getMode() == Mode.Throughput ) {
+			line.throughput = 1e9 / JmhCsv.nanosPerOp( primary.getScore(), primary.getScoreUnit() );
+			line.gcCount = score( secondary, GC_COUNT );
+			// only reported when there was a collection
+			line.gcTime = secondary.containsKey( GC_TIME ) || Double.isNaN( line.gcCount ) ? score( secondary, GC_TIME ) : 0;
+			line.allocation = score( secondary, ALLOCATION );
+		}
+		else {
+			line.p50 = JmhCsv.nanosPerOp( primary.getStatistics().getPercentile( 50 ), primary.getScoreUnit() ) / 1e3;
+			line.p99 = JmhCsv.nanosPerOp( primary.getStatistics().getPercentile( 99 ), primary.getScoreUnit() ) / 1e3;
+		}
+	}
+
+	private static String params(RunResult result) {
+		final Collection<String> keys = result.getParams().getParamsKeys();
+		if ( keys.isEmpty() ) {
+			return "";
+		}
+		final List<String> params = new ArrayList<>();
+		for ( String key : keys ) {
+			params.add( key + "=" + result.getParams().getParam( key ) );
+		}
+		return " " + params;
+	}
+
+	private static double score(Map<String, Result> results, String label) {
+		final Result<?> result = results.get( label );
+		return result == null ? Double.NaN : result.getScore();
+	}
+
+	private static class Line {
+		private final String collector;
+		private final String heap;
+		private double throughput = Double.NaN;
+		private double p50 = Double.NaN;
+		private double p99 = Double.NaN;
+		private double gcTime = Double.NaN;
+		private double gcCount = Double.NaN;
+		private double allocation = Double.NaN;
+
+		private Line(String collector, String heap) {
+			this.collector = collector;
+			this.heap = heap;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package org.hibernate.benchmark.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.Defaults;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * JMH profiler reporting the Hibernate {@link Statistics} of every SessionFactory opened by the benchmark
+ * as secondary results, normalized per benchmark operation:
+ * <pre>
+ * $ java -jar basic/target/libs/hibernate-orm-benchmark-basic-1.0-SNAPSHOT-jmh.jar QueryImmutableEntity -prof org.hibernate.benchmark.util.HibernateStatisticsProfiler
+ * </pre>
+ * The statistics are enabled on the factories tracked by {@link SessionFactoryTracker} at the beginning of
+ * each iteration, hence factories created by a trial level {@code @Setup} are only reported from the second
+ * iteration onward, which is always a warmup one unless {@code -wi 0} is used.
+ */
+public class HibernateStatisticsProfiler implements InternalProfiler {
+
+	private static final String PREFIX = Defaults.PREFIX + "hibernate.";
+	private static final String UNIT = "#/op";
+
+	private static final List<Metric> METRICS = List.of(
+			new Metric( "statements", Statistics::getPrepareStatementCount ),
+			new Metric( "entity.loads", Statistics::getEntityLoadCount ),
+			new Metric( "entity.fetches", Statistics::getEntityFetchCount ),
+			new Metric( "collection.loads", Statistics::getCollectionLoadCount ),
+			new Metric( "collection.fetches", Statistics::getCollectionFetchCount ),
+			new Metric( "flushes", Statistics::getFlushCount ),
+			new Metric( "l2.puts", Statistics::getSecondLevelCachePutCount ),
+			new Metric( "l2.hits", Statistics::getSecondLevelCacheHitCount ),
+			new Metric( "l2.misses", Statistics::getSecondLevelCacheMissCount ),
+			new Metric( "querycache.hits", Statistics::getQueryCacheHitCount )
+	);
+
+	private record Metric(String label, ToLongFunction<Statistics> counter) {
+	}
+
+	private long[] before;
+
+	@Override
+	public String getDescription() {
+		return "Hibernate ORM statistics per operation";
+	}
+
+	@Override
+	public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+		for ( SessionFactoryImplementor sessionFactory : SessionFactoryTracker.sessionFactories() ) {
+			sessionFactory.getStatistics().setStatisticsEnabled( true );
+		}
+		before = snapshot();
+	}
+
+	@Override
+	public Collection<? extends Result> afterIteration(
+			BenchmarkParams benchmarkParams,
+			IterationParams iterationParams,
+			IterationResult result) {
+		final long[] after = snapshot();
+		SessionFactoryTracker.forgetClosedSessionFactories();
+		final long ops = result.getMetadata().getMeasuredOps();
+		final List<Result> results = new ArrayList<>( METRICS.size() );
+		if ( ops > 0 && after != null ) {
+			for ( int i = 0; i < METRICS.size(); i++ ) {
+				results.add( new ScalarResult(
+						PREFIX + METRICS.get( i ).label(),
+						(double) ( after[i] - ( before == null ? 0 : before[i] ) ) / ops,
+						UNIT,
+						AggregationPolicy.AVG
+				) );
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Sums the counters of the open factories, and of those closed since the last iteration.
+	 *
+	 * @return {@code null} if none of the factories has statistics enabled
+	 */
+	private static long[] snapshot() {
+		final long[] values = new long[METRICS.size()];
+		final boolean open = collect( SessionFactoryTracker.sessionFactories(), values );
+		final boolean closed = collect( SessionFactoryTracker.closedSessionFactories(), values );
+		return open || closed ? values : null;
+	}
+
+	private static boolean collect(Collection<SessionFactoryImplementor> sessionFactories, long[] values) {
+		boolean enabled = false;
+		for ( SessionFactoryImplementor sessionFactory : sessionFactories ) {
+			final Statistics statistics = sessionFactory.getStatistics();
+			if ( statistics.isStatisticsEnabled() ) {
+				enabled = true;
+				for ( int i = 0; i < values.length; i++ ) {
+					values[i] += METRICS.get( i ).counter().applyAsLong( statistics );
+				}
+			}
+		}
+		return enabled;
+	}
+}
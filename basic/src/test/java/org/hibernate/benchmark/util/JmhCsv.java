@@ -0,0 +1,175 @@
+package org.hibernate.benchmark.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal reader for the JMH CSV result format, i.e. the file written by {@code -rf csv -rff <file>}.
+ * <p>
+ * Used by the report tools in this package to post-process benchmark results.
+ */
+public final class JmhCsv {
+
+	private static final String PARAM_PREFIX = "Param: ";
+
+	private JmhCsv() {
+	}
+
+	/**
+	 * A single line of the JMH results: either a primary result, or a secondary one
+	 * (e.g. <code>single:&middot;gc.alloc.rate.norm</code>).
+	 */
+	public record Row(
+			String benchmark,
+			String mode,
+			int threads,
+			double score,
+			double error,
+			String unit,
+			Map<String, String> params) {
+
+		/**
+		 * The benchmark name without the secondary result suffix
+		 */
+		public String primaryBenchmark() {
+			final int index = benchmark.indexOf( ':' );
+			return index < 0 ? benchmark : benchmark.substring( 0, index );
+		}
+
+		/**
+		 * The secondary result label (e.g. <code>&middot;gc.alloc.rate.norm</code>), or {@code null} for primary results
+		 */
+		public String secondary() {
+			final int index = benchmark.indexOf( ':' );
+			return index < 0 ? null : benchmark.substring( index + 1 );
+		}
+
+		/**
+		 * The benchmark name without the package, e.g. {@code QueryImmutableEntity.single}
+		 */
+		public String shortName() {
+			final int method = benchmark.lastIndexOf( '.', benchmark.indexOf( ':' ) < 0 ? benchmark.length() : benchmark.indexOf( ':' ) );
+			return benchmark.substring( benchmark.lastIndexOf( '.', method - 1 ) + 1 );
+		}
+
+		public String param(String name) {
+			return params.get( name );
+		}
+
+		/**
+		 * The time of an operation in nanoseconds, for both the throughput ({@code ops/s}) and time ({@code ns/op}) modes
+		 */
+		public double nanosPerOp() {
+			return JmhCsv.nanosPerOp( score, unit );
+		}
+	}
+
+	public static List<Row> read(Path file) throws IOException {
+		final List<String> lines = Files.readAllLines( file );
+		if ( lines.isEmpty() ) {
+			return Collections.emptyList();
+		}
+		final List<String> header = split( lines.get( 0 ) );
+		final int benchmark = header.indexOf( "Benchmark" );
+		final int mode = header.indexOf( "Mode" );
+		final int threads = header.indexOf( "Threads" );
+		final int score = header.indexOf( "Score" );
+		final int error = header.indexOf( "Score Error (99.9%)" );
+		final int unit = header.indexOf( "Unit" );
+		if ( benchmark < 0 || score < 0 ) {
+			throw new IllegalArgumentException( "Not a JMH CSV result file: " + file );
+		}
+		final List<Row> rows = new ArrayList<>( lines.size() - 1 );
+		for ( int i = 1; i < lines.size(); i++ ) {
+			if ( lines.get( i ).isBlank() ) {
+				continue;
+			}
+			final List<String> values = split( lines.get( i ) );
+			final Map<String, String> params = new LinkedHashMap<>();
+			for ( int j = 0; j < header.size(); j++ ) {
+				if ( header.get( j ).startsWith( PARAM_PREFIX ) && j < values.size() && !values.get( j ).isEmpty() ) {
+					params.put( header.get( j ).substring( PARAM_PREFIX.length() ), values.get( j ) );
+				}
+			}
+			rows.add( new Row(
+					values.get( benchmark ),
+					mode < 0 ? null : values.get( mode ),
+					threads < 0 ? 1 : Integer.parseInt( values.get( threads ) ),
+					parseDouble( values.get( score ) ),
+					error < 0 ? Double.NaN : parseDouble( values.get( error ) ),
+					unit < 0 ? null : values.get( unit ),
+					params
+			) );
+		}
+		return rows;
+	}
+
+	/**
+	 * The time of an operation in nanoseconds, from a score in either {@code ops/<time>} or {@code <time>/op}
+	 */
+	static double nanosPerOp(double score, String unit) {
+		if ( unit == null ) {
+			return Double.NaN;
+		}
+		final String[] units = unit.split( "/" );
+		if ( units.length != 2 ) {
+			return Double.NaN;
+		}
+		if ( "ops".equals( units[0] ) ) {
+			return toNanos( units[1] ) / score;
+		}
+		if ( "op".equals( units[1] ) ) {
+			return score * toNanos( units[0] );
+		}
+		return Double.NaN;
+	}
+
+	private static double toNanos(String unit) {
+		return switch ( unit ) {
+			case "s" -> TimeUnit.SECONDS.toNanos( 1 );
+			case "ms" -> TimeUnit.MILLISECONDS.toNanos( 1 );
+			case "us" -> TimeUnit.MICROSECONDS.toNanos( 1 );
+			case "ns" -> 1;
+			case "min" -> TimeUnit.MINUTES.toNanos( 1 );
+			default -> Double.NaN;
+		};
+	}
+
+	private static double parseDouble(String value) {
+		return value.isEmpty() ? Double.NaN : Double.parseDouble( value );
+	}
+
+	private static List<String> split(String line) {
+		final List<String> values = new ArrayList<>();
+		final StringBuilder current = new StringBuilder();
+		boolean quoted = false;
+		for ( int i = 0; i < line.length(); i++ ) {
+			final char c = line.charAt( i );
+			if ( c == '"' ) {
+				if ( quoted && i + 1 < line.length() && line.charAt( i + 1 ) == '"' ) {
+					current.append( '"' );
+					i++;
+				}
+				else {
+					quoted = !quoted;
+				}
+			}
+			else if ( c == ',' && !quoted ) {
+				values.add( current.toString() );
+				current.setLength( 0 );
+			}
+			else {
+				current.append( c );
+			}
+		}
+		values.add( current.toString() );
+		return values;
+	}
+}
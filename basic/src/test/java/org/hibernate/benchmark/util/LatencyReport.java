@@ -0,0 +1,112 @@
+package org.hibernate.benchmark.util;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints the latency percentiles of the benchmarks run in the {@code SampleTime} mode next to their throughput
+ * and <code>&middot;gc.alloc.rate.norm</code>, sorted by the ratio of the p99 to the median, so that the workloads with a long
+ * tail show up first even when their throughput looks fine:
+ * <pre>
+ * $ java -jar basic/target/libs/hibernate-orm-benchmark-basic-1.0-SNAPSHOT-jmh.jar QueryImmutableEntity -prof gc -rf csv -rff results.csv
+ * $ java -cp basic/target/libs/hibernate-orm-benchmark-basic-1.0-SNAPSHOT-jmh.jar org.hibernate.benchmark.util.LatencyReport results.csv
+ * </pre>
+ * The times are in microseconds, the allocations in bytes per operation.
+ */
+public class LatencyReport {
+
+	private static final String ALLOCATION = "gc.alloc.rate.norm";
+	private static final List<String> PERCENTILES = List.of( "p0.50", "p0.90", "p0.99", "p0.999", "p1.00" );
+
+	public static void main(String[] args) throws Exception {
+		if ( args.length != 1 ) {
+			System.err.println( "Usage: LatencyReport <jmh-results.csv>" );
+			System.exit( 1 );
+		}
+		final Map<String, Latency> latencies = new LinkedHashMap<>();
+		for ( JmhCsv.Row row : JmhCsv.read( Path.of( args[0] ) ) ) {
+			final Latency latency = latencies.computeIfAbsent( group( row ), k -> new Latency( row ) );
+			final String secondary = row.secondary();
+			if ( secondary == null ) {
+				if ( "thrpt".equals( row.mode() ) ) {
+					latency.throughput = 1e9 / row.nanosPerOp();
+				}
+				else if ( "sample".equals( row.mode() ) ) {
+					latency.mean = row.nanosPerOp() / 1e3;
+				}
+			}
+			else if ( secondary.endsWith( ALLOCATION ) ) {
+				if ( "thrpt".equals( row.mode() ) || Double.isNaN( latency.allocation ) ) {
+					latency.allocation = row.score();
+				}
+			}
+			else if ( "sample".equals( row.mode() ) ) {
+				final String percentile = secondary.substring( secondary.lastIndexOf( '\u00b7' ) + 1 );
+				if ( PERCENTILES.contains( percentile ) ) {
+					latency.percentiles.put( percentile, row.nanosPerOp() / 1e3 );
+				}
+			}
+		}
+
+		final List<Latency> sampled = new ArrayList<>();
+		for ( Latency latency : latencies.values() ) {
+			if ( latency.percentiles.containsKey( "p0.50" ) ) {
+				sampled.add( latency );
+			}
+		}
+		sampled.sort( Comparator.comparingDouble( Latency::tail ).reversed() );
+
+		System.out.printf(
+				"%-50s %14s %12s %12s %12s %12s %12s %12s %8s %14s%n",
+				"Benchmark", "ops/s", "mean", "p50", "p90", "p99", "p99.9", "max", "p99/p50", "B/op"
+		);
+		for ( Latency latency : sampled ) {
+			System.out.printf(
+					"%-50s %14s %12.1f %12.1f %12.1f %12.1f %12.1f %12.1f %8.1f %14s %s%n",
+					latency.benchmark,
+					Double.isNaN( latency.throughput ) ? "-" : String.format( "%.3f", latency.throughput ),
+					latency.mean,
+					latency.percentile( "p0.50" ),
+					latency.percentile( "p0.90" ),
+					latency.percentile( "p0.99" ),
+					latency.percentile( "p0.999" ),
+					latency.percentile( "p1.00" ),
+					latency.tail(),
+					Double.isNaN( latency.allocation ) ? "-" : String.format( "%.1f", latency.allocation ),
+					latency.params.isEmpty() ? "" : latency.params
+			);
+		}
+	}
+
+	private static String group(JmhCsv.Row row) {
+		return row.primaryBenchmark() + row.params();
+	}
+
+	private static class Latency {
+		private final String benchmark;
+		private final Map<String, String> params;
+		private final Map<String, Double> percentiles = new LinkedHashMap<>();
+		private double throughput = Double.NaN;
+		private double mean = Double.NaN;
+		private double allocation = Double.NaN;
+
+		private Latency(JmhCsv.Row row) {
+			final String shortName = row.shortName();
+			final int index = shortName.indexOf( ':' );
+			this.benchmark = index < 0 ? shortName : shortName.substring( 0, index );
+			this.params = row.params();
+		}
+
+		private double percentile(String percentile) {
+			return percentiles.getOrDefault( percentile, Double.NaN );
+		}
+
+		private double tail() {
+			return percentile( "p0.99" ) / percentile( "p0.50" );
+		}
+	}
+}
@@ -0,0 +1,291 @@
+package org.hibernate.benchmark.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl;
+
+/**
+ * Connection pool replaying canned result sets, to measure the ORM without the cost of the database itself
+ * (SQL parsing, execution, locking) showing up in the profiles.
+ * <p>
+ * The pool hands out wrappers of the connections of the built-in Hibernate pool, which work in two modes:
+ * <ul>
+ *     <li>recording, until {@link #replay()} is called: statements are executed by the database, and the result
+ *     of each query is materialized in memory, keyed by the SQL and the bound parameters.</li>
+ *     <li>replaying: the database is not involved anymore, queries return the recorded results,
+ *     updates report a single affected row and transactions are no-ops. Executing a query which was not
+ *     recorded fails.</li>
+ * </ul>
+ * Benchmarks use it through {@link #settings(String)}, then run their workload once to record it
+ * before switching to {@link #replay()}. The mode is global, hence only single-threaded benchmarks are supported.
+ */
+public class ReplayConnectionProvider extends DriverManagerConnectionProviderImpl {
+
+	public static final String DATABASE = "DATABASE";
+	public static final String REPLAY = "REPLAY";
+
+	private static final Map<String, ReplayResultSet.Table> RECORDINGS = new ConcurrentHashMap<>();
+	private static volatile boolean replaying;
+
+	private final Map<Connection, Connection> connections = new ConcurrentHashMap<>();
+
+	/**
+	 * The settings to pass to the {@code EntityManagerFactory} for the given {@code jdbc} benchmark parameter,
+	 * either {@link #DATABASE} or {@link #REPLAY}
+	 */
+	public static Map<String, Object> settings(String jdbc) {
+		reset();
+		switch ( jdbc ) {
+			case DATABASE:
+				return Collections.emptyMap();
+			case REPLAY:
+				return Map.of( "hibernate.connection.provider_class", ReplayConnectionProvider.class.getName() );
+			default:
+				throw new IllegalArgumentException( "Unknown jdbc mode: " + jdbc );
+		}
+	}
+
+	/**
+	 * Forgets the recorded results and records again, e.g. before closing the factory so that the schema is dropped
+	 */
+	public static void reset() {
+		replaying = false;
+		RECORDINGS.clear();
+	}
+
+	public static void replay() {
+		replaying = true;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return connections.computeIfAbsent(
+				super.getConnection(),
+				connection -> proxy( Connection.class, new ConnectionHandler( connection ) )
+		);
+	}
+
+	@Override
+	public void closeConnection(Connection connection) throws SQLException {
+		super.closeConnection( ( (ConnectionHandler) Proxy.getInvocationHandler( connection ) ).connection );
+	}
+
+	/**
+	 * Identity based {@code equals} and {@code hashCode}, as the pool and the ORM keep the proxies in hash maps
+	 */
+	private abstract static class Handler implements InvocationHandler {
+
+		@Override
+		public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if ( method.getDeclaringClass() == Object.class ) {
+				switch ( method.getName() ) {
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode( proxy );
+					default:
+						return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( proxy ) );
+				}
+			}
+			return handle( proxy, method, args );
+		}
+
+		protected abstract Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+	}
+
+	private static class ConnectionHandler extends Handler {
+		private final Connection connection;
+		private boolean autoCommit;
+
+		ConnectionHandler(Connection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		protected Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+			switch ( method.getName() ) {
+				case "prepareStatement":
+				case "prepareCall":
+				case "createStatement":
+					final String sql = args == null ? null : (String) args[0];
+					final Statement statement = replaying ? null : (Statement) delegate( connection, method, args );
+					return proxy( method.getReturnType(), new StatementHandler( (Connection) proxy, statement, sql ) );
+				case "getAutoCommit":
+					return replaying ? autoCommit : delegate( connection, method, args );
+				case "setAutoCommit":
+					autoCommit = (Boolean) args[0];
+					return replaying ? null : delegate( connection, method, args );
+				case "commit":
+				case "rollback":
+					return replaying ? null : delegate( connection, method, args );
+				default:
+					return delegate( connection, method, args );
+			}
+		}
+	}
+
+	private static class StatementHandler extends Handler {
+		private final Connection connection;
+		private final Statement statement;
+		private final String sql;
+		private final Map<Integer, Object> parameters = new TreeMap<>();
+		private int batchSize;
+		private ResultSet resultSet;
+		private boolean closed;
+
+		StatementHandler(Connection connection, Statement statement, String sql) {
+			this.connection = connection;
+			this.statement = statement;
+			this.sql = sql;
+		}
+
+		@Override
+		protected Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+			final String name = method.getName();
+			if ( name.startsWith( "set" ) && args != null && args.length >= 2 && args[0] instanceof Integer ) {
+				parameters.put( (Integer) args[0], "setNull".equals( name ) ? null : args[1] );
+				return statement == null ? null : delegate( statement, method, args );
+			}
+			switch ( name ) {
+				case "executeQuery":
+					return executeQuery( (Statement) proxy, args == null ? null : (String) args[0] );
+				case "getResultSet":
+					return resultSet;
+				case "getConnection":
+					return connection;
+				case "clearParameters":
+					parameters.clear();
+					break;
+				case "close":
+					closed = true;
+					break;
+				case "isClosed":
+					return closed;
+				case "unwrap":
+					return proxy;
+				case "isWrapperFor":
+					return false;
+			}
+			if ( statement != null ) {
+				return delegate( statement, method, args );
+			}
+			switch ( name ) {
+				case "executeUpdate":
+					return 1;
+				case "executeLargeUpdate":
+					return 1L;
+				case "addBatch":
+					batchSize++;
+					return null;
+				case "clearBatch":
+					batchSize = 0;
+					return null;
+				case "executeBatch":
+					final int[] counts = new int[batchSize];
+					Arrays.fill( counts, 1 );
+					batchSize = 0;
+					return counts;
+				case "getUpdateCount":
+					return -1;
+				case "clearParameters":
+				case "close":
+					return null;
+				default:
+					if ( name.startsWith( "execute" ) ) {
+						throw new SQLFeatureNotSupportedException( "Not supported while replaying: " + name );
+					}
+					return defaultValue( method.getReturnType() );
+			}
+		}
+
+		private ResultSet executeQuery(Statement proxy, String query) throws SQLException {
+			final String key = ( query == null ? sql : query ) + parameters.values().stream().map( ReplayConnectionProvider::toKey ).toList();
+			final ReplayResultSet.Table table;
+			if ( replaying || statement == null ) {
+				table = RECORDINGS.get( key );
+				if ( table == null ) {
+					throw new SQLException( "No result recorded for: " + key );
+				}
+			}
+			else {
+				// the latest result wins, e.g. for sequence calls
+				try (ResultSet rs = query == null
+						? ( (PreparedStatement) statement ).executeQuery()
+						: statement.executeQuery( query )) {
+					table = ReplayResultSet.Table.of( rs );
+				}
+				RECORDINGS.put( key, table );
+			}
+			resultSet = new ReplayResultSet( proxy, table );
+			return resultSet;
+		}
+	}
+
+	private static <T> T proxy(Class<T> type, Handler handler) {
+		return type.cast( Proxy.newProxyInstance( ReplayConnectionProvider.class.getClassLoader(), new Class<?>[] { type }, handler ) );
+	}
+
+	private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke( target, args );
+		}
+		catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static String toKey(Object parameter) {
+		try {
+			if ( parameter instanceof Array array ) {
+				return Arrays.deepToString( (Object[]) array.getArray() );
+			}
+		}
+		catch (SQLException e) {
+			throw new IllegalStateException( e );
+		}
+		return parameter instanceof Object[] values ? Arrays.deepToString( values ) : String.valueOf( parameter );
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if ( !type.isPrimitive() || type == void.class ) {
+			return null;
+		}
+		if ( type == boolean.class ) {
+			return false;
+		}
+		if ( type == long.class ) {
+			return 0L;
+		}
+		if ( type == double.class ) {
+			return 0d;
+		}
+		if ( type == float.class ) {
+			return 0f;
+		}
+		if ( type == short.class ) {
+			return (short) 0;
+		}
+		if ( type == byte.class ) {
+			return (byte) 0;
+		}
+		if ( type == char.class ) {
+			return (char) 0;
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,1229 @@
+package org.hibernate.benchmark.util;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forward-only, read-only {@link ResultSet} over the rows recorded by {@link ReplayConnectionProvider}.
+ * <p>
+ * Implemented without reflection, as the getters are called for every column of every row and must not cost
+ * more than the ones of the database driver. Whatever Hibernate doesn't use when reading results is not supported.
+ */
+class ReplayResultSet implements ResultSet {
+
+	/**
+	 * A materialized result set
+	 */
+	record Table(String[] labels, int[] types, List<Object[]> rows) {
+
+		static Table of(ResultSet resultSet) throws SQLException {
+			final ResultSetMetaData metaData = resultSet.getMetaData();
+			final int columns = metaData.getColumnCount();
+			final String[] labels = new String[columns];
+			final int[] types = new int[columns];
+			for ( int i = 0; i < columns; i++ ) {
+				labels[i] = metaData.getColumnLabel( i + 1 );
+				types[i] = metaData.getColumnType( i + 1 );
+			}
+			final List<Object[]> rows = new ArrayList<>();
+			while ( resultSet.next() ) {
+				final Object[] row = new Object[columns];
+				for ( int i = 0; i < columns; i++ ) {
+					row[i] = resultSet.getObject( i + 1 );
+				}
+				rows.add( row );
+			}
+			return new Table( labels, types, rows );
+		}
+	}
+
+	private final Statement statement;
+	private final Table table;
+	private int row = -1;
+	private Object[] current;
+	private boolean wasNull;
+	private boolean closed;
+
+	ReplayResultSet(Statement statement, Table table) {
+		this.statement = statement;
+		this.table = table;
+	}
+
+	private Object value(int columnIndex) throws SQLException {
+		if ( current == null ) {
+			throw new SQLException( "No current row" );
+		}
+		final Object value = current[columnIndex - 1];
+		wasNull = value == null;
+		return value;
+	}
+
+	private static SQLException unsupported() {
+		return new SQLFeatureNotSupportedException( "Not supported by the replayed result sets" );
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T convert(Object value, Class<T> type) throws SQLException {
+		if ( value == null || type.isInstance( value ) ) {
+			return (T) value;
+		}
+		if ( type == String.class ) {
+			return (T) value.toString();
+		}
+		if ( value instanceof Number number ) {
+			if ( type == Long.class ) {
+				return (T) Long.valueOf( number.longValue() );
+			}
+			if ( type == Integer.class ) {
+				return (T) Integer.valueOf( number.intValue() );
+			}
+			if ( type == Short.class ) {
+				return (T) Short.valueOf( number.shortValue() );
+			}
+			if ( type == Byte.class ) {
+				return (T) Byte.valueOf( number.byteValue() );
+			}
+			if ( type == Double.class ) {
+				return (T) Double.valueOf( number.doubleValue() );
+			}
+			if ( type == Float.class ) {
+				return (T) Float.valueOf( number.floatValue() );
+			}
+			if ( type == Boolean.class ) {
+				return (T) Boolean.valueOf( number.intValue() != 0 );
+			}
+			if ( type == BigDecimal.class ) {
+				return (T) new BigDecimal( number.toString() );
+			}
+		}
+		if ( value instanceof Timestamp timestamp && type == LocalDateTime.class ) {
+			return (T) timestamp.toLocalDateTime();
+		}
+		throw new SQLException( "Cannot convert " + value.getClass().getName() + " to " + type.getName() );
+	}
+
+	@Override
+	public boolean next() {
+		if ( ++row < table.rows().size() ) {
+			current = table.rows().get( row );
+			return true;
+		}
+		row = table.rows().size();
+		current = null;
+		return false;
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+	}
+
+	@Override
+	public boolean isClosed() {
+		return closed;
+	}
+
+	@Override
+	public boolean wasNull() {
+		return wasNull;
+	}
+
+	@Override
+	public int findColumn(String columnLabel) throws SQLException {
+		final String[] labels = table.labels();
+		for ( int i = 0; i < labels.length; i++ ) {
+			if ( labels[i].equalsIgnoreCase( columnLabel ) ) {
+				return i + 1;
+			}
+		}
+		throw new SQLException( "Unknown column: " + columnLabel );
+	}
+
+	@Override
+	public Object getObject(int columnIndex) throws SQLException {
+		return value( columnIndex );
+	}
+
+	@Override
+	public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+		return convert( value( columnIndex ), type );
+	}
+
+	@Override
+	public String getString(int columnIndex) throws SQLException {
+		final Object value = value( columnIndex );
+		return value == null ? null : value.toString();
+	}
+
+	@Override
+	public boolean getBoolean(int columnIndex) throws SQLException {
+		final Object value = value( columnIndex );
+		return value instanceof Boolean bool ? bool : value != null && convert( value, Boolean.class );
+	}
+
+	@Override
+	public byte getByte(int columnIndex) throws SQLException {
+		final Object value = value( columnIndex );
+		return value instanceof Number number ? number.byteValue() : value == null ? 0 : convert( value, Byte.class );
+	}
+
+	@Override
+	public short getShort(int columnIndex) throws SQLException {
+		final Object value = value( columnIndex );
+		return value instanceof Number number ? number.shortValue() : value == null ? 0 : convert( value, Short.class );
+	}
+
+	@Override
+	public int getInt(int columnIndex) throws SQLException {
+		final Object value = value( columnIndex );
+		return value instanceof Number number ? number.intValue() : value == null ? 0 : convert( value, Integer.class );
+	}
+
+	@Override
+	public long getLong(int columnIndex) throws SQLException {
+		final Object value = value( columnIndex );
+		return value instanceof Number number ? number.longValue() : value == null ? 0L : convert( value, Long.class );
+	}
+
+	@Override
+	public float getFloat(int columnIndex) throws SQLException {
+		final Object value = value( columnIndex );
+		return value instanceof Number number ? number.floatValue() : value == null ? 0f : convert( value, Float.class );
+	}
+
+	@Override
+	public double getDouble(int columnIndex) throws SQLException {
+		final Object value = value( columnIndex );
+		return value instanceof Number number ? number.doubleValue() : value == null ? 0d : convert( value, Double.class );
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+		return convert( value( columnIndex ), BigDecimal.class );
+	}
+
+	@Override
+	@Deprecated
+	public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+		final BigDecimal value = getBigDecimal( columnIndex );
+		return value == null ? null : value.setScale( scale, RoundingMode.HALF_UP );
+	}
+
+	@Override
+	public byte[] getBytes(int columnIndex) throws SQLException {
+		return convert( value( columnIndex ), byte[].class );
+	}
+
+	@Override
+	public Date getDate(int columnIndex) throws SQLException {
+		return convert( value( columnIndex ), Date.class );
+	}
+
+	@Override
+	public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+		return getDate( columnIndex );
+	}
+
+	@Override
+	public Time getTime(int columnIndex) throws SQLException {
+		return convert( value( columnIndex ), Time.class );
+	}
+
+	@Override
+	public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+		return getTime( columnIndex );
+	}
+
+	@Override
+	public Timestamp getTimestamp(int columnIndex) throws SQLException {
+		return convert( value( columnIndex ), Timestamp.class );
+	}
+
+	@Override
+	public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+		return getTimestamp( columnIndex );
+	}
+
+	@Override
+	public Object getObject(String columnLabel) throws SQLException {
+		return getObject( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+		return getObject( findColumn( columnLabel ), type );
+	}
+
+	@Override
+	public String getString(String columnLabel) throws SQLException {
+		return getString( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public boolean getBoolean(String columnLabel) throws SQLException {
+		return getBoolean( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public byte getByte(String columnLabel) throws SQLException {
+		return getByte( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public short getShort(String columnLabel) throws SQLException {
+		return getShort( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public int getInt(String columnLabel) throws SQLException {
+		return getInt( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public long getLong(String columnLabel) throws SQLException {
+		return getLong( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public float getFloat(String columnLabel) throws SQLException {
+		return getFloat( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public double getDouble(String columnLabel) throws SQLException {
+		return getDouble( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+		return getBigDecimal( findColumn( columnLabel ) );
+	}
+
+	@Override
+	@Deprecated
+	public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+		return getBigDecimal( findColumn( columnLabel ), scale );
+	}
+
+	@Override
+	public byte[] getBytes(String columnLabel) throws SQLException {
+		return getBytes( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public Date getDate(String columnLabel) throws SQLException {
+		return getDate( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+		return getDate( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public Time getTime(String columnLabel) throws SQLException {
+		return getTime( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+		return getTime( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public Timestamp getTimestamp(String columnLabel) throws SQLException {
+		return getTimestamp( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+		return getTimestamp( findColumn( columnLabel ) );
+	}
+
+	@Override
+	public ResultSetMetaData getMetaData() {
+		return new MetaData( table );
+	}
+
+	@Override
+	public Statement getStatement() {
+		return statement;
+	}
+
+	@Override
+	public int getRow() {
+		return current == null ? 0 : row + 1;
+	}
+
+	@Override
+	public void beforeFirst() {
+		row = -1;
+		current = null;
+	}
+
+	@Override
+	public boolean isBeforeFirst() {
+		return row < 0 && !table.rows().isEmpty();
+	}
+
+	@Override
+	public boolean isAfterLast() {
+		return row >= table.rows().size() && !table.rows().isEmpty();
+	}
+
+	@Override
+	public boolean isFirst() {
+		return current != null && row == 0;
+	}
+
+	@Override
+	public boolean isLast() {
+		return current != null && row == table.rows().size() - 1;
+	}
+
+	@Override
+	public int getType() {
+		return TYPE_FORWARD_ONLY;
+	}
+
+	@Override
+	public int getConcurrency() {
+		return CONCUR_READ_ONLY;
+	}
+
+	@Override
+	public int getHoldability() {
+		return CLOSE_CURSORS_AT_COMMIT;
+	}
+
+	@Override
+	public void setFetchDirection(int direction) {
+	}
+
+	@Override
+	public int getFetchDirection() {
+		return FETCH_FORWARD;
+	}
+
+	@Override
+	public void setFetchSize(int rows) {
+	}
+
+	@Override
+	public int getFetchSize() {
+		return 0;
+	}
+
+	@Override
+	public SQLWarning getWarnings() {
+		return null;
+	}
+
+	@Override
+	public void clearWarnings() {
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if ( iface.isInstance( this ) ) {
+			return iface.cast( this );
+		}
+		throw unsupported();
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) {
+		return iface.isInstance( this );
+	}
+
+	// unsupported operations
+
+	@Override
+	public InputStream getAsciiStream(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	@Deprecated
+	public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public InputStream getBinaryStream(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public InputStream getAsciiStream(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	@Deprecated
+	public InputStream getUnicodeStream(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public InputStream getBinaryStream(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public String getCursorName() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Reader getCharacterStream(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Reader getCharacterStream(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void afterLast() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public boolean first() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public boolean last() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public boolean absolute(int rows) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public boolean relative(int rows) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public boolean previous() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public boolean rowUpdated() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public boolean rowInserted() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public boolean rowDeleted() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNull(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBoolean(int columnIndex, boolean x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateByte(int columnIndex, byte x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateShort(int columnIndex, short x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateInt(int columnIndex, int x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateLong(int columnIndex, long x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateFloat(int columnIndex, float x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateDouble(int columnIndex, double x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateString(int columnIndex, String x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBytes(int columnIndex, byte[] x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateDate(int columnIndex, Date x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateTime(int columnIndex, Time x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateAsciiStream(int columnIndex, InputStream x, int length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBinaryStream(int columnIndex, InputStream x, int length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateCharacterStream(int columnIndex, Reader x, int length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateObject(int columnIndex, Object x, int length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateObject(int columnIndex, Object x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNull(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBoolean(String columnLabel, boolean x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateByte(String columnLabel, byte x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateShort(String columnLabel, short x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateInt(String columnLabel, int x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateLong(String columnLabel, long x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateFloat(String columnLabel, float x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateDouble(String columnLabel, double x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateString(String columnLabel, String x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBytes(String columnLabel, byte[] x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateDate(String columnLabel, Date x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateTime(String columnLabel, Time x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateAsciiStream(String columnLabel, InputStream x, int length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBinaryStream(String columnLabel, InputStream x, int length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateCharacterStream(String columnLabel, Reader x, int length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateObject(String columnLabel, Object x, int length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateObject(String columnLabel, Object x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void insertRow() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateRow() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void deleteRow() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void refreshRow() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void cancelRowUpdates() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void moveToInsertRow() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void moveToCurrentRow() throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Ref getRef(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Blob getBlob(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Clob getClob(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Array getArray(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Ref getRef(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Blob getBlob(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Clob getClob(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Array getArray(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public URL getURL(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public URL getURL(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateRef(int columnIndex, Ref x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateRef(String columnLabel, Ref x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBlob(int columnIndex, Blob x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBlob(String columnLabel, Blob x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateClob(int columnIndex, Clob x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateClob(String columnLabel, Clob x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateArray(int columnIndex, Array x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateArray(String columnLabel, Array x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public RowId getRowId(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public RowId getRowId(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateRowId(int columnIndex, RowId x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateRowId(String columnLabel, RowId x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNString(int columnIndex, String x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNString(String columnLabel, String x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNClob(int columnIndex, NClob x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNClob(String columnLabel, NClob x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public NClob getNClob(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public NClob getNClob(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public SQLXML getSQLXML(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public SQLXML getSQLXML(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateSQLXML(int columnIndex, SQLXML x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateSQLXML(String columnLabel, SQLXML x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public String getNString(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public String getNString(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Reader getNCharacterStream(int columnIndex) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public Reader getNCharacterStream(String columnLabel) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNCharacterStream(String columnLabel, Reader x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateAsciiStream(int columnIndex, InputStream x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBinaryStream(int columnIndex, InputStream x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateAsciiStream(String columnLabel, InputStream x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBinaryStream(String columnLabel, InputStream x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateCharacterStream(String columnLabel, Reader x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBlob(int columnIndex, InputStream x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBlob(String columnLabel, InputStream x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateClob(int columnIndex, Reader x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateClob(String columnLabel, Reader x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNClob(int columnIndex, Reader x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNClob(String columnLabel, Reader x, long length) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNCharacterStream(int columnIndex, Reader x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNCharacterStream(String columnLabel, Reader x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateAsciiStream(int columnIndex, InputStream x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBinaryStream(int columnIndex, InputStream x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateCharacterStream(int columnIndex, Reader x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateAsciiStream(String columnLabel, InputStream x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBinaryStream(String columnLabel, InputStream x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateCharacterStream(String columnLabel, Reader x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBlob(int columnIndex, InputStream x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateBlob(String columnLabel, InputStream x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateClob(int columnIndex, Reader x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateClob(String columnLabel, Reader x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNClob(int columnIndex, Reader x) throws SQLException {
+		throw unsupported();
+	}
+
+	@Override
+	public void updateNClob(String columnLabel, Reader x) throws SQLException {
+		throw unsupported();
+	}
+
+	private record MetaData(Table table) implements ResultSetMetaData {
+
+		@Override
+		public int getColumnCount() {
+			return table.labels().length;
+		}
+
+		@Override
+		public String getColumnLabel(int column) {
+			return table.labels()[column - 1];
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return table.labels()[column - 1];
+		}
+
+		@Override
+		public int getColumnType(int column) {
+			return table.types()[column - 1];
+		}
+
+		@Override
+		public int isNullable(int column) {
+			return columnNullableUnknown;
+		}
+
+		@Override
+		public boolean isAutoIncrement(int column) {
+			return false;
+		}
+
+		@Override
+		public boolean isCaseSensitive(int column) {
+			return true;
+		}
+
+		@Override
+		public boolean isSearchable(int column) {
+			return true;
+		}
+
+		@Override
+		public boolean isCurrency(int column) {
+			return false;
+		}
+
+		@Override
+		public boolean isSigned(int column) {
+			return true;
+		}
+
+		@Override
+		public int getColumnDisplaySize(int column) {
+			return 0;
+		}
+
+		@Override
+		public String getSchemaName(int column) {
+			return "";
+		}
+
+		@Override
+		public int getPrecision(int column) {
+			return 0;
+		}
+
+		@Override
+		public int getScale(int column) {
+			return 0;
+		}
+
+		@Override
+		public String getTableName(int column) {
+			return "";
+		}
+
+		@Override
+		public String getCatalogName(int column) {
+			return "";
+		}
+
+		@Override
+		public String getColumnTypeName(int column) {
+			return "";
+		}
+
+		@Override
+		public boolean isReadOnly(int column) {
+			return true;
+		}
+
+		@Override
+		public boolean isWritable(int column) {
+			return false;
+		}
+
+		@Override
+		public boolean isDefinitelyWritable(int column) {
+			return false;
+		}
+
+		@Override
+		public String getColumnClassName(int column) {
+			return Object.class.getName();
+		}
+
+		@Override
+		public <T> T unwrap(Class<T> iface) throws SQLException {
+			throw unsupported();
+		}
+
+		@Override
+		public boolean isWrapperFor(Class<?> iface) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package org.hibernate.benchmark.util;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the cost of a query into a fixed part (plan lookup, statement preparation, results mapping setup)
+ * and a per row part (hydration), by fitting a line through the scores measured for different result sizes.
+ * <p>
+ * The time per operation and <code>&middot;gc.alloc.rate.norm</code> (when run with {@code -prof gc}) are both fitted
+ * against the numeric result size parameter, {@code rows} by default, for the same benchmark and other parameters.
+ * The points are weighted by {@code 1/error^2}, from the {@code Score Error} column, since the error of the largest
+ * sizes is orders of magnitude larger than the cost per query; when an error is missing, the relative errors are
+ * fitted instead. The standard error of the cost per query tells whether it is above the noise:
+ * <pre>
+ * $ java -jar basic/target/libs/hibernate-orm-benchmark-basic-1.0-SNAPSHOT-jmh.jar QueryImmutableEntity -prof gc -rf csv -rff results.csv
+ * $ java -cp basic/target/libs/hibernate-orm-benchmark-basic-1.0-SNAPSHOT-jmh.jar org.hibernate.benchmark.util.ResultSizeRegression results.csv
+ * </pre>
+ */
+public class ResultSizeRegression {
+
+	private static final String ALLOCATION = "\u00b7gc.alloc.rate.norm";
+
+	public static void main(String[] args) throws Exception {
+		if ( args.length < 1 || args.length > 2 ) {
+			System.err.println( "Usage: ResultSizeRegression <jmh-results.csv> [size-param]" );
+			System.exit( 1 );
+		}
+		final String sizeParam = args.length == 2 ? args[1] : "rows";
+
+		final Map<String, WeightedRegression> times = new LinkedHashMap<>();
+		final Map<String, WeightedRegression> allocations = new LinkedHashMap<>();
+		for ( JmhCsv.Row row : JmhCsv.read( Path.of( args[0] ) ) ) {
+			final String size = row.param( sizeParam );
+			if ( size == null ) {
+				continue;
+			}
+			if ( "sample".equals( row.mode() ) ) {
+				// same average time and allocations as the throughput mode, when run in both
+				continue;
+			}
+			if ( row.secondary() == null ) {
+				final double nanos = row.nanosPerOp();
+				if ( !Double.isNaN( nanos ) ) {
+					// the relative error is the same for the throughput and the time per operation
+					times.computeIfAbsent( group( row, sizeParam ), k -> new WeightedRegression() )
+							.addData( Double.parseDouble( size ), nanos, nanos * row.error() / row.score() );
+				}
+			}
+			else if ( ALLOCATION.equals( row.secondary() ) ) {
+				allocations.computeIfAbsent( group( row, sizeParam ), k -> new WeightedRegression() )
+						.addData( Double.parseDouble( size ), row.score(), row.error() );
+			}
+		}
+
+		System.out.printf(
+				"%-80s %6s %14s %12s %12s %8s %14s %12s%n",
+				"Benchmark", "Points", "ns/query", "SE ns/query", "ns/row", "R2", "B/query", "B/row"
+		);
+		for ( Map.Entry<String, WeightedRegression> entry : times.entrySet() ) {
+			final WeightedRegression time = entry.getValue().fit();
+			final WeightedRegression allocation = allocations.get( entry.getKey() );
+			if ( time == null ) {
+				continue;
+			}
+			final WeightedRegression allocationFit = allocation == null ? null : allocation.fit();
+			System.out.printf(
+					"%-80s %6d %14.1f %12.1f %12.2f %8.4f %14s %12s%n",
+					entry.getKey(),
+					time.getN(),
+					time.getIntercept(),
+					time.getInterceptStdErr(),
+					time.getSlope(),
+					time.getRSquare(),
+					allocationFit == null ? "-" : String.format( "%.1f", allocationFit.getIntercept() ),
+					allocationFit == null ? "-" : String.format( "%.2f", allocationFit.getSlope() )
+			);
+		}
+	}
+
+	private static String group(JmhCsv.Row row, String sizeParam) {
+		final Map<String, String> params = new LinkedHashMap<>( row.params() );
+		params.remove( sizeParam );
+		final String benchmark = row.shortName();
+		final int index = benchmark.indexOf( ':' );
+		return ( index < 0 ? benchmark : benchmark.substring( 0, index ) ) + ( params.isEmpty() ? "" : " " + params );
+	}
+
+	/**
+	 * Weighted least squares fit of a line, with the weights {@code 1/error^2}, or {@code 1/y^2} as soon as a point
+	 * has no error, i.e. a fit of the relative errors
+	 */
+	private static class WeightedRegression {
+		private final List<double[]> points = new ArrayList<>();
+		private double intercept;
+		private double slope;
+		private double interceptStdErr;
+		private double rSquare;
+
+		void addData(double x, double y, double error) {
+			points.add( new double[] { x, y, error } );
+		}
+
+		/**
+		 * @return this regression, or {@code null} if there are not enough points to fit a line
+		 */
+		WeightedRegression fit() {
+			if ( points.size() < 2 ) {
+				return null;
+			}
+			boolean relative = false;
+			for ( double[] point : points ) {
+				relative |= !( point[2] > 0 ) || Double.isInfinite( point[2] );
+			}
+			double w = 0, sx = 0, sy = 0, sxx = 0, sxy = 0, syy = 0;
+			for ( double[] point : points ) {
+				final double x = point[0];
+				final double y = point[1];
+				final double weight = relative ? 1 / Math.max( y * y, 1 ) : 1 / ( point[2] * point[2] );
+				w += weight;
+				sx += weight * x;
+				sy += weight * y;
+				sxx += weight * x * x;
+				sxy += weight * x * y;
+				syy += weight * y * y;
+			}
+			final double delta = w * sxx - sx * sx;
+			slope = ( w * sxy - sx * sy ) / delta;
+			intercept = ( sxx * sy - sx * sxy ) / delta;
+			// weighted sum of the squared residuals
+			final double residuals = syy - 2 * intercept * sy - 2 * slope * sxy
+					+ intercept * intercept * w + 2 * intercept * slope * sx + slope * slope * sxx;
+			// the errors are confidence intervals rather than standard deviations, so the variance is estimated from the residuals
+			interceptStdErr = points.size() > 2
+					? Math.sqrt( Math.max( residuals, 0 ) / ( points.size() - 2 ) * sxx / delta )
+					: Double.NaN;
+			final double total = syy - sy * sy / w;
+			rSquare = total > 0 ? 1 - residuals / total : Double.NaN;
+			return this;
+		}
+
+		int getN() {
+			return points.size();
+		}
+
+		double getIntercept() {
+			return intercept;
+		}
+
+		double getSlope() {
+			return slope;
+		}
+
+		double getInterceptStdErr() {
+			return interceptStdErr;
+		}
+
+		double getRSquare() {
+			return rSquare;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package org.hibernate.benchmark.util;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.Defaults;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * JMH profiler reporting the peak of the heap still in use right after a garbage collection, i.e. an upper bound
+ * of the memory retained by the benchmark, while {@code -prof gc} only reports how much is allocated:
+ * <pre>
+ * $ java -jar basic/target/libs/hibernate-orm-benchmark-basic-1.0-SNAPSHOT-jmh.jar StreamingRead -prof gc -prof org.hibernate.benchmark.util.RetainedHeapProfiler
+ * </pre>
+ * Nothing is reported for the iterations without any garbage collection.
+ */
+public class RetainedHeapProfiler implements InternalProfiler {
+
+	private static final double MB = 1024 * 1024;
+
+	private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+			.filter( pool -> pool.getType() == MemoryType.HEAP )
+			.map( MemoryPoolMXBean::getName )
+			.collect( Collectors.toSet() );
+
+	private final AtomicLong peak = new AtomicLong( -1 );
+
+	public RetainedHeapProfiler() {
+		for ( GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans() ) {
+			( (NotificationEmitter) collector ).addNotificationListener(
+					(notification, handback) -> {
+						if ( GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals( notification.getType() ) ) {
+							final GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from(
+									(CompositeData) notification.getUserData()
+							);
+							peak.accumulateAndGet( heapUsed( info.getGcInfo().getMemoryUsageAfterGc() ), Math::max );
+						}
+					},
+					null,
+					null
+			);
+		}
+	}
+
+	@Override
+	public String getDescription() {
+		return "Peak heap used after garbage collection";
+	}
+
+	@Override
+	public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+		peak.set( -1 );
+	}
+
+	@Override
+	public Collection<? extends Result> afterIteration(
+			BenchmarkParams benchmarkParams,
+			IterationParams iterationParams,
+			IterationResult result) {
+		final long bytes = peak.get();
+		if ( bytes < 0 ) {
+			return List.of();
+		}
+		return List.of( new ScalarResult(
+				Defaults.PREFIX + "heap.retained.peak",
+				bytes / MB,
+				"MB",
+				AggregationPolicy.MAX
+		) );
+	}
+
+	private long heapUsed(Map<String, MemoryUsage> usages) {
+		long used = 0;
+		for ( Map.Entry<String, MemoryUsage> entry : usages.entrySet() ) {
+			if ( heapPools.contains( entry.getKey() ) ) {
+				used += entry.getValue().getUsed();
+			}
+		}
+		return used;
+	}
+}
@@ -0,0 +1,55 @@
+package org.hibernate.benchmark.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * {@link Integrator} keeping track of every open SessionFactory, regardless of how the benchmark
+ * bootstraps it (JPA {@code Persistence} or native {@code Configuration}).
+ * <p>
+ * Registered through {@code META-INF/services}, so that benchmarks don't need to expose their factories
+ * to be observed by {@link HibernateStatisticsProfiler}.
+ * <p>
+ * Closed factories are retained until {@link #forgetClosedSessionFactories()} is called, since JMH runs
+ * the trial level {@code @TearDown} methods before profilers get to read the last iteration.
+ */
+public class SessionFactoryTracker implements Integrator {
+
+	private static final Set<SessionFactoryImplementor> SESSION_FACTORIES = ConcurrentHashMap.newKeySet();
+	private static final Set<SessionFactoryImplementor> CLOSED_SESSION_FACTORIES = ConcurrentHashMap.newKeySet();
+
+	public static Collection<SessionFactoryImplementor> sessionFactories() {
+		return Collections.unmodifiableSet( SESSION_FACTORIES );
+	}
+
+	public static Collection<SessionFactoryImplementor> closedSessionFactories() {
+		return Collections.unmodifiableSet( CLOSED_SESSION_FACTORIES );
+	}
+
+	public static void forgetClosedSessionFactories() {
+		CLOSED_SESSION_FACTORIES.clear();
+	}
+
+	@Override
+	public void integrate(
+			Metadata metadata,
+			BootstrapContext bootstrapContext,
+			SessionFactoryImplementor sessionFactory) {
+		SESSION_FACTORIES.add( sessionFactory );
+	}
+
+	@Override
+	public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+		if ( SESSION_FACTORIES.remove( sessionFactory ) ) {
+			CLOSED_SESSION_FACTORIES.add( sessionFactory );
+		}
+	}
+}
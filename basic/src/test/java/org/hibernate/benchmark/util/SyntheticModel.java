@@ -0,0 +1,216 @@
+package org.hibernate.benchmark.util;
+
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Inheritance;
+import jakarta.persistence.InheritanceType;
+import jakarta.persistence.ManyToOne;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.dynamic.DynamicType;
+
+/**
+ * Generates a domain model of {@link Config#entities} synthetic entities, for the benchmarks which need
+ * more entities than the hand written models have:
+ * <ul>
+ *     <li>{@link Config#attributes} basic attributes per entity, of a single basic type per entity when
+ *     {@link Config#variedBasicTypes}, so that each entity is read and written through its own {@code JdbcType}</li>
+ *     <li>{@link Config#associations} lazy {@code @ManyToOne} per entity, to entities generated before it,
+ *     cascading {@code PERSIST} when {@link Config#cascadePersist}</li>
+ *     <li>{@link Config#inheritanceDepth} entities per {@code SINGLE_TABLE} hierarchy, {@code 1} means no inheritance</li>
+ *     <li>{@link Config#embeddables} {@code @Embedded} attributes per root entity</li>
+ * </ul>
+ * The classes are defined in a new class loader, so that the metadata Hibernate caches per class is built again
+ * for each model. The generation is deterministic for a given configuration.
+ */
+public class SyntheticModel {
+
+	private static final String PACKAGE = "org.hibernate.benchmark.synthetic.generated.";
+	private static final List<Class<?>> BASIC_TYPES = List.of( String.class, Integer.class, Long.class, LocalDate.class, Boolean.class );
+	private static final List<Class<?>> VARIED_BASIC_TYPES = List.of(
+			String.class, Integer.class, Short.class, Double.class, Float.class, BigDecimal.class, Boolean.class,
+			LocalDate.class, LocalTime.class, LocalDateTime.class, Instant.class, UUID.class
+	);
+	private static final int EMBEDDABLE_ATTRIBUTES = 3;
+
+	public record Config(
+			int entities,
+			int attributes,
+			int associations,
+			int inheritanceDepth,
+			int embeddables,
+			boolean cascadePersist,
+			boolean variedBasicTypes) {
+		public Config {
+			if ( entities < 1 || attributes < 0 || associations < 0 || inheritanceDepth < 1 || embeddables < 0 ) {
+				throw new IllegalArgumentException( "Invalid synthetic model: " + this );
+			}
+		}
+
+		public Config(int entities, int attributes, int associations, int inheritanceDepth, int embeddables) {
+			this( entities, attributes, associations, inheritanceDepth, embeddables, false, false );
+		}
+	}
+
+	private final Config config;
+	private final GeneratedClassLoader classLoader = new GeneratedClassLoader();
+	private final List<Class<?>> entityClasses = new ArrayList<>();
+	private final List<Class<?>> embeddableClasses = new ArrayList<>();
+
+	public SyntheticModel(Config config) {
+		this.config = config;
+		generate();
+	}
+
+	public Config config() {
+		return config;
+	}
+
+	public ClassLoader classLoader() {
+		return classLoader;
+	}
+
+	/**
+	 * The entity classes, in generation order: an entity only refers to the entities generated before it
+	 */
+	public List<Class<?>> entityClasses() {
+		return Collections.unmodifiableList( entityClasses );
+	}
+
+	public List<Class<?>> embeddableClasses() {
+		return Collections.unmodifiableList( embeddableClasses );
+	}
+
+	private void generate() {
+		final ByteBuddy byteBuddy = new ByteBuddy();
+		for ( int k = 0; k < config.embeddables(); k++ ) {
+			DynamicType.Builder<?> builder = byteBuddy.subclass( Object.class )
+					.name( PACKAGE + "Embeddable" + k )
+					.modifiers( Modifier.PUBLIC )
+					.annotateType( AnnotationDescription.Builder.ofType( Embeddable.class ).build() );
+			for ( int a = 0; a < EMBEDDABLE_ATTRIBUTES; a++ ) {
+				// unique column names, since all the embeddables can be in the same table
+				builder = builder.defineField( "embeddable" + k + "_" + a, String.class, Modifier.PUBLIC );
+			}
+			embeddableClasses.add( classLoader.define( builder.make() ) );
+		}
+
+		final Random random = new Random( config.entities() );
+		Class<?> superclass = null;
+		for ( int i = 0; i < config.entities(); i++ ) {
+			final boolean root = i % config.inheritanceDepth() == 0;
+			DynamicType.Builder<?> builder = byteBuddy.subclass( root ? Object.class : superclass )
+					.name( PACKAGE + "Entity" + i )
+					.modifiers( Modifier.PUBLIC )
+					.annotateType( AnnotationDescription.Builder.ofType( Entity.class ).define( "name", "Entity" + i ).build() );
+			if ( root ) {
+				if ( config.inheritanceDepth() > 1 ) {
+					builder = builder.annotateType( AnnotationDescription.Builder.ofType( Inheritance.class )
+							.define( "strategy", InheritanceType.SINGLE_TABLE )
+							.build() );
+				}
+				builder = builder.defineField( "id", Long.class, Modifier.PUBLIC )
+						.annotateField( AnnotationDescription.Builder.ofType( Id.class ).build() );
+				for ( int k = 0; k < embeddableClasses.size(); k++ ) {
+					builder = builder.defineField( "embedded" + k, embeddableClasses.get( k ), Modifier.PUBLIC )
+							.annotateField( AnnotationDescription.Builder.ofType( Embedded.class ).build() );
+				}
+			}
+			// the attributes of a hierarchy share the same table, so they are prefixed by the entity
+			for ( int a = 0; a < config.attributes(); a++ ) {
+				final Class<?> type = config.variedBasicTypes()
+						? VARIED_BASIC_TYPES.get( i % VARIED_BASIC_TYPES.size() )
+						: BASIC_TYPES.get( a % BASIC_TYPES.size() );
+				builder = builder.defineField( "attribute" + i + "_" + a, type, Modifier.PUBLIC );
+			}
+			if ( !entityClasses.isEmpty() ) {
+				for ( int a = 0; a < config.associations(); a++ ) {
+					final Class<?> target = entityClasses.get( random.nextInt( entityClasses.size() ) );
+					AnnotationDescription.Builder manyToOne = AnnotationDescription.Builder.ofType( ManyToOne.class )
+							.define( "fetch", FetchType.LAZY );
+					if ( config.cascadePersist() ) {
+						manyToOne = manyToOne.defineEnumerationArray( "cascade", CascadeType.class, CascadeType.PERSIST );
+					}
+					builder = builder.defineField( "association" + i + "_" + a, target, Modifier.PUBLIC )
+							.annotateField( manyToOne.build() );
+				}
+			}
+			superclass = classLoader.define( builder.make() );
+			entityClasses.add( superclass );
+		}
+	}
+
+	/**
+	 * A value of the given basic type, derived from the given seed, or {@code null} if the type is not a basic type
+	 * of the generated entities
+	 */
+	public static Object basicValue(Class<?> type, long seed) {
+		if ( type == String.class ) {
+			return "value_" + seed;
+		}
+		else if ( type == Long.class ) {
+			return seed;
+		}
+		else if ( type == Integer.class ) {
+			return (int) seed;
+		}
+		else if ( type == Short.class ) {
+			return (short) seed;
+		}
+		else if ( type == Double.class ) {
+			return seed / 2d;
+		}
+		else if ( type == Float.class ) {
+			return seed / 2f;
+		}
+		else if ( type == BigDecimal.class ) {
+			return BigDecimal.valueOf( seed, 1 );
+		}
+		else if ( type == Boolean.class ) {
+			return seed % 2 == 0;
+		}
+		else if ( type == LocalDate.class ) {
+			return LocalDate.ofEpochDay( seed );
+		}
+		else if ( type == LocalTime.class ) {
+			return LocalTime.ofSecondOfDay( seed % 86_400 );
+		}
+		else if ( type == LocalDateTime.class ) {
+			return LocalDateTime.of( LocalDate.ofEpochDay( seed ), LocalTime.NOON );
+		}
+		else if ( type == Instant.class ) {
+			return Instant.ofEpochSecond( seed );
+		}
+		else if ( type == UUID.class ) {
+			return new UUID( 0, seed );
+		}
+		return null;
+	}
+
+	private static class GeneratedClassLoader extends ClassLoader {
+		private GeneratedClassLoader() {
+			super( SyntheticModel.class.getClassLoader() );
+		}
+
+		private Class<?> define(DynamicType.Unloaded<?> type) {
+			final byte[] bytes = type.getBytes();
+			return defineClass( type.getTypeDescription().getName(), bytes, 0, bytes.length );
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package org.hibernate.benchmark.util;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints the per-thread throughput of multi-threaded benchmarks, since JMH only reports the throughput
+ * of all the threads together.
+ * <p>
+ * The scaling efficiency compares the per-thread throughput with the one measured with the lowest
+ * thread count for the same benchmark class and parameters:
+ * <pre>
+ * $ java -jar basic/target/libs/hibernate-orm-benchmark-basic-1.0-SNAPSHOT-jmh.jar QueryCacheEntityWithAssociationConcurrent -rf csv -rff results.csv
+ * $ java -cp basic/target/libs/hibernate-orm-benchmark-basic-1.0-SNAPSHOT-jmh.jar org.hibernate.benchmark.util.ThreadScalingReport results.csv
+ * </pre>
+ */
+public class ThreadScalingReport {
+
+	public static void main(String[] args) throws Exception {
+		if ( args.length != 1 ) {
+			System.err.println( "Usage: ThreadScalingReport <jmh-results.csv>" );
+			System.exit( 1 );
+		}
+		final List<JmhCsv.Row> rows = new ArrayList<>();
+		for ( JmhCsv.Row row : JmhCsv.read( Path.of( args[0] ) ) ) {
+			if ( row.secondary() == null && "thrpt".equals( row.mode() ) ) {
+				rows.add( row );
+			}
+		}
+		rows.sort( Comparator.comparing( ThreadScalingReport::group ).thenComparingInt( JmhCsv.Row::threads ) );
+
+		final Map<String, Double> baselines = new HashMap<>();
+		System.out.printf( "%-60s %8s %16s %16s %10s%n", "Benchmark", "Threads", "Score", "Score/thread", "Scaling" );
+		for ( JmhCsv.Row row : rows ) {
+			final double perThread = row.score() / row.threads();
+			final double baseline = baselines.computeIfAbsent( group( row ), k -> perThread );
+			System.out.printf(
+					"%-60s %8d %16.3f %16.3f %9.1f%% %s%n",
+					row.shortName(),
+					row.threads(),
+					row.score(),
+					perThread,
+					100 * perThread / baseline,
+					row.params().isEmpty() ? "" : row.params()
+			);
+		}
+	}
+
+	private static String group(JmhCsv.Row row) {
+		final String benchmark = row.primaryBenchmark();
+		return benchmark.substring( 0, benchmark.lastIndexOf( '.' ) ) + row.params();
+	}
+}
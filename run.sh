@@ -0,0 +1,128 @@
+#!/bin/bash
+
+function usage() {
+  echo "Usage:"
+  echo
+  echo "  $0 -b <benchmark regexp> -v <orm versions> [-m <profiler modes>] [-o <output dir>] [-g <gradle args>] [-- <jmh args>]"
+  echo
+  echo "    -b <benchmark regexp>  The benchmarks to run (e.g. PartialFlush or \"QueryImmutableEntity|AutoFlush.single\")"
+  echo "    -v <orm versions>      The comma separated ORM versions to test (e.g. 6.6,perf)"
+  echo "    -m <profiler modes>    The comma separated profiler modes, among cpu, alloc, wall and perfnorm (default: cpu,alloc,wall)"
+  echo "    -o <output dir>        The directory of the results, one sub directory per ORM version (default: results)"
+  echo "    -g <gradle args>       Additional arguments of the build (e.g. \"-Pdb=hsqldb -Penhance=true\")"
+  echo "    <jmh args>             Additional JMH options (e.g. -pcount=100 -t 4), -f 2 unless -f is given"
+  echo
+  echo "  The cpu, alloc and wall modes require ASYNC_PROFILER_HOME, perfnorm requires Linux perf."
+  echo "  Each version directory gets the JMH results (results.json) and a flamegraph per mode and benchmark run."
+}
+
+BENCHMARKS=
+ORM_VERSIONS=
+MODES=cpu,alloc,wall
+OUTPUT=results
+GRADLE_ARGS=
+
+while getopts "b:v:m:o:g:h" opt; do
+  case ${opt} in
+    b) BENCHMARKS=${OPTARG} ;;
+    v) ORM_VERSIONS=${OPTARG} ;;
+    m) MODES=${OPTARG} ;;
+    o) OUTPUT=${OPTARG} ;;
+    g) GRADLE_ARGS=${OPTARG} ;;
+    h) usage; exit 0 ;;
+    *) usage; exit 1 ;;
+  esac
+done
+shift $((OPTIND - 1))
+[ "$1" == "--" ] && shift
+JMH_ARGS=("$@")
+
+if [ -z "$BENCHMARKS" ]; then
+	echo "ERROR: benchmark regexp not supplied"
+	usage
+	exit 1
+fi
+if [ -z "$ORM_VERSIONS" ]; then
+	echo "ERROR: ORM versions not supplied"
+	usage
+	exit 1
+fi
+
+JAR=basic/target/libs/hibernate-orm-benchmark-basic-1.0-SNAPSHOT-jmh.jar
+OS=$(uname -s)
+ARCH=$(uname -m)
+
+function has_mode() {
+  [[ ",${MODES}," == *",$1,"* ]]
+}
+
+for mode in ${MODES//,/ }; do
+  case ${mode} in
+    cpu|alloc|wall|perfnorm) ;;
+    *) echo "ERROR: unknown profiler mode ${mode}"; usage; exit 1 ;;
+  esac
+done
+
+# async-profiler: a single recording per benchmark run, from which the flamegraph of each mode is converted
+ASYNC_COMMAND=
+if has_mode cpu || has_mode alloc || has_mode wall; then
+	if [ -z "$ASYNC_PROFILER_HOME" ]; then
+		echo "ERROR: ASYNC_PROFILER_HOME is required by the cpu, alloc and wall modes"
+		exit 1
+	fi
+	if [ "$OS" == "Darwin" ]; then
+		ASYNC_LIB=${ASYNC_PROFILER_HOME}/lib/libasyncProfiler.dylib
+	else
+		ASYNC_LIB=${ASYNC_PROFILER_HOME}/lib/libasyncProfiler.so
+	fi
+	RAW_COMMAND=
+	has_mode alloc && RAW_COMMAND=${RAW_COMMAND:+${RAW_COMMAND},}alloc
+	has_mode wall && RAW_COMMAND=${RAW_COMMAND:+${RAW_COMMAND},}wall
+	# vtable stubs are only resolved on x86
+	if [ "$ARCH" == "x86_64" ] || [ "$ARCH" == "amd64" ]; then
+		RAW_COMMAND=${RAW_COMMAND:+${RAW_COMMAND},}features=vtable
+	fi
+	ASYNC_COMMAND="async:${RAW_COMMAND:+rawCommand=${RAW_COMMAND};}event=cpu;output=jfr;libPath=${ASYNC_LIB}"
+fi
+
+PERFNORM=false
+if has_mode perfnorm; then
+	if [ "$OS" != "Linux" ] || ! command -v perf > /dev/null; then
+		echo "WARNING: perfnorm requires Linux perf, skipping it"
+	else
+		PERFNORM=true
+		if [ "$ARCH" != "x86_64" ] && [ "$ARCH" != "amd64" ]; then
+			echo "WARNING: some of the perfnorm hardware counters may not be available on ${ARCH}"
+		fi
+	fi
+fi
+
+FORKS=(-f 2)
+for arg in "${JMH_ARGS[@]}"; do
+	[[ "$arg" =~ ^-f[0-9]*$ ]] && FORKS=()
+done
+
+for ORM_VERSION in ${ORM_VERSIONS//,/ }; do
+	DIR=${OUTPUT}/${ORM_VERSION}
+	rm -rf "${DIR}"
+	mkdir -p "${DIR}"
+
+	./gradlew jmhJar -Porm=${ORM_VERSION} ${GRADLE_ARGS} || exit 1
+
+	PROFILERS=(-prof gc)
+	[ -n "$ASYNC_COMMAND" ] && PROFILERS+=(-prof "${ASYNC_COMMAND};dir=${DIR}/jfr")
+	[ "$PERFNORM" == "true" ] && PROFILERS+=(-prof perfnorm)
+
+	java -jar ${JAR} "${BENCHMARKS}" "${FORKS[@]}" "${PROFILERS[@]}" -rf json -rff "${DIR}/results.json" "${JMH_ARGS[@]}" || exit 1
+
+	# one recording directory per benchmark method, mode and parameters, whatever their names
+	if [ -d "${DIR}/jfr" ]; then
+		for jfr_file in $(find "${DIR}/jfr" -name "*.jfr"); do
+			run=$(basename "$(dirname "${jfr_file}")")
+			has_mode cpu && java -cp ${ASYNC_PROFILER_HOME}/lib/converter.jar jfr2flame --state default "${jfr_file}" "${DIR}/${run}-cpu.html"
+			has_mode alloc && java -cp ${ASYNC_PROFILER_HOME}/lib/converter.jar jfr2flame --alloc --total "${jfr_file}" "${DIR}/${run}-alloc.html"
+			has_mode wall && java -cp ${ASYNC_PROFILER_HOME}/lib/converter.jar jfr2flame --state runnable,sleeping "${jfr_file}" "${DIR}/${run}-wall.html"
+		done
+	fi
+	echo "Results of ORM ${ORM_VERSION} in ${DIR}"
+done
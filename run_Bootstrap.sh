@@ -0,0 +1,30 @@
+#!/bin/bash
+
+function usage() {
+  echo "Usage:"
+  echo
+  echo "  $0 <orm_version>"
+  echo
+  echo "    <orm>                The ORM version to test (e.g. 6.6 or perf)"
+}
+
+ORM_VERSION=$1
+
+if [ -z "$ORM_VERSION" ]; then
+	echo "ERROR: ORM version not supplied"
+	usage
+	exit 1
+fi
+
+./gradlew jmhJar -Porm=${ORM_VERSION}
+
+JAR=basic/target/libs/hibernate-orm-benchmark-basic-1.0-SNAPSHOT-jmh.jar
+CDS_ARCHIVE=basic/target/hibernate-${ORM_VERSION}.jsa
+
+# train an AppCDS archive with the Hibernate, ByteBuddy and entity classes loaded when booting every persistence unit,
+# the classpath must be the same as the one of the forked benchmark JVMs, i.e. the jar
+rm -f ${CDS_ARCHIVE}
+java -XX:ArchiveClassesAtExit=${CDS_ARCHIVE} -cp ${JAR} org.hibernate.benchmark.bootstrap.Bootstrap
+
+java -jar ${JAR} Bootstrap -rf csv -rff Bootstrap-${ORM_VERSION}.csv
+java -jar ${JAR} Bootstrap -jvmArgsAppend "-XX:SharedArchiveFile=${CDS_ARCHIVE} -Xlog:cds=warning" -rf csv -rff Bootstrap-cds-${ORM_VERSION}.csv
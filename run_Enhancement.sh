@@ -0,0 +1,27 @@
+#!/bin/bash
+
+function usage() {
+  echo "Usage:"
+  echo
+  echo "  $0 <orm_version> [benchmark regexp]"
+  echo
+  echo "    <orm>                The ORM version to test (e.g. 6.6 or perf)"
+  echo "    [benchmark regexp]   The benchmarks to run plain and enhanced, the flush and read heavy ones by default"
+}
+
+ORM_VERSION=$1
+BENCHMARKS=${2:-"PartialFlush.single|AutoFlush.single|QueryImmutableEntity"}
+
+if [ -z "$ORM_VERSION" ]; then
+	echo "ERROR: ORM version not supplied"
+	usage
+	exit 1
+fi
+
+JAR=basic/target/libs/hibernate-orm-benchmark-basic-1.0-SNAPSHOT-jmh.jar
+
+./gradlew jmhJar -Porm=${ORM_VERSION}
+java -jar ${JAR} "${BENCHMARKS}" -prof gc -rf csv -rff Enhancement-plain-${ORM_VERSION}.csv
+
+./gradlew jmhJar -Porm=${ORM_VERSION} -Penhance=true
+java -jar ${JAR} "${BENCHMARKS}" -prof gc -rf csv -rff Enhancement-enhanced-${ORM_VERSION}.csv